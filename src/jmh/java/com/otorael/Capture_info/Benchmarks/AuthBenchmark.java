@@ -0,0 +1,57 @@
+package com.otorael.Capture_info.Benchmarks;
+
+import com.otorael.Capture_info.Authentication.JwtUtility;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ *     Token generation, token parsing as done by JwtAuthenticationFilter, and BCrypt password checks.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AuthBenchmark {
+
+    private static final String SECRET_KEY = "HereIsMySTRONGSuperSECRETKEY001";
+    private static final String PASSWORD = "correct-Horse-battery-42";
+
+    private JwtUtility jwtUtility;
+    private String signedToken;
+    private BCryptPasswordEncoder passwordEncoder;
+    private String passwordHash;
+
+    @Setup
+    public void setUp() {
+        jwtUtility = new JwtUtility(SECRET_KEY, 900_000, 1_209_600_000);
+        signedToken = jwtUtility.TokenGeneration("bench@example.com");
+
+        passwordEncoder = new BCryptPasswordEncoder(10);
+        passwordHash = passwordEncoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public String tokenGeneration() {
+        return jwtUtility.TokenGeneration("bench@example.com");
+    }
+
+    @Benchmark
+    public String tokenParsing() {
+        return jwtUtility.parseAccessToken(signedToken).getSubject();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public boolean bcryptMatches() {
+        return passwordEncoder.matches(PASSWORD, passwordHash);
+    }
+}
@@ -0,0 +1,61 @@
+package com.otorael.Capture_info.Benchmarks;
+
+import com.otorael.Capture_info.Service.PinCodeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ *     PIN lookups against PinCode.txt, single and streamed.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PinCodeBenchmark {
+
+    private PinCodeService pinCodeService;
+    private String[] pins;
+    private byte[] streamBody;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        pinCodeService = new PinCodeService(1000, "lists/PinCode.txt", 0);
+        pinCodeService.load();
+
+        pins = new String[1024];
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < pins.length; i++) {
+            pins[i] = String.format("%04d", (i * 7919) % PinCodeService.PIN_SPACE);
+            body.append(pins[i]).append('\n');
+        }
+        streamBody = body.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Benchmark
+    public int rankLookup() {
+        next = (next + 1) & (pins.length - 1);
+        return pinCodeService.rank(pins[next]);
+    }
+
+    /**
+     * 1024 PINs through the streaming scorer, output discarded.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long streamScoring() throws IOException {
+        return pinCodeService.scoreStream(new ByteArrayInputStream(streamBody), OutputStream.nullOutputStream());
+    }
+}
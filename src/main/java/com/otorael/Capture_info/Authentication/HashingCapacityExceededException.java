@@ -0,0 +1,13 @@
+package com.otorael.Capture_info.Authentication;
+
+/**
+ * <p>
+ *     Thrown when the password hashing queue is full. Callers should answer 503 instead of waiting.
+ * </p>
+ */
+public class HashingCapacityExceededException extends RuntimeException {
+
+    public HashingCapacityExceededException(String message) {
+        super(message);
+    }
+}
@@ -1,36 +1,188 @@
 package com.otorael.Capture_info.Authentication;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 
 @Component
 public class JwtUtility {
 
+    private static final Logger log = LoggerFactory.getLogger(JwtUtility.class);
+
     /**
-     *
      * <p>
-     *     @Value gets the secret key from application.yaml for token generation
+     *     Claim telling access tokens and refresh tokens apart, so one can never be used as the other.
      * </p>
      */
-    @Value("${jwt.secretKey}")
-    public String secretKey;
+    public static final String TOKEN_USE_CLAIM = "token_use";
+    public static final String ACCESS = "access";
+    public static final String REFRESH = "refresh";
+
+    /**
+     * <p>
+     *     Claim carrying the id shared by every refresh token rotated from the same login.
+     * </p>
+     */
+    public static final String FAMILY_CLAIM = "fam";
+
+    private static final String ISSUER = "otorael";
+
+    /**
+     * <p>
+     *     HMAC key derived once from jwt.secretKey in application.yaml
+     * </p>
+     */
+    private final SecretKey signingKey;
+
+    /**
+     * <p>
+     *     Immutable and thread safe, shared by every request
+     * </p>
+     */
+    private final JwtParser jwtParser;
+
+    private final long accessTokenValidityMillis;
+    private final long refreshTokenValidityMillis;
+
+    /**
+     *
+     * @param secretKey gets the secret key from application.yaml for token signing
+     * @param accessTokenValidityMillis how long an access token stays valid
+     * @param refreshTokenValidityMillis how long a refresh token stays valid
+     */
+    public JwtUtility(
+            @Value("${jwt.secretKey}") String secretKey,
+            @Value("${jwt.access-token-validity-ms:900000}") long accessTokenValidityMillis,
+            @Value("${jwt.refresh-token-validity-ms:1209600000}") long refreshTokenValidityMillis
+    ) {
+        this.accessTokenValidityMillis = accessTokenValidityMillis;
+        this.refreshTokenValidityMillis = refreshTokenValidityMillis;
+        this.signingKey = deriveKey(secretKey);
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .requireIssuer(ISSUER)
+                .build();
+    }
 
     /**
      *
      * @param email unique email to pass as a subject for a specific user
-     * @return a token
+     * @return a signed, short-lived access token
      *
      */
     public String TokenGeneration(String email){
 
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .issuer(ISSUER)
+                .subject(email)
+                .claim(TOKEN_USE_CLAIM, ACCESS)
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + accessTokenValidityMillis))
+                .signWith(signingKey)
+                .compact();
+    }
+
+    /**
+     *
+     * @param email unique email to pass as a subject for a specific user
+     * @param family id shared by all refresh tokens rotated from the same login
+     * @param id the token's own unique id, recorded as the family's current token
+     * @return a signed refresh token
+     */
+    public String RefreshTokenGeneration(String email, String family, String id){
+
+        long now = System.currentTimeMillis();
         return Jwts.builder()
-                .setIssuer("otorael")
-                .setSubject(email)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis()+ 1000 * 60 * 60 * 3))
+                .issuer(ISSUER)
+                .subject(email)
+                .id(id)
+                .claim(TOKEN_USE_CLAIM, REFRESH)
+                .claim(FAMILY_CLAIM, family)
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + refreshTokenValidityMillis))
+                .signWith(signingKey)
                 .compact();
     }
+
+    /**
+     *
+     * @param token a token issued by this class
+     * @return its claims once the signature, issuer and expiry have been checked
+     * @throws io.jsonwebtoken.JwtException if the token is not valid
+     */
+    public Claims parseToken(String token){
+
+        return jwtParser.parseSignedClaims(token).getPayload();
+    }
+
+    /**
+     *
+     * @param token a bearer token
+     * @return its claims if it is a valid access token
+     * @throws io.jsonwebtoken.JwtException if the token is not valid or is a refresh token
+     */
+    public Claims parseAccessToken(String token){
+
+        return requireUse(parseToken(token), ACCESS);
+    }
+
+    /**
+     *
+     * @param token a refresh token
+     * @return its claims if it is a valid refresh token
+     * @throws io.jsonwebtoken.JwtException if the token is not valid or is an access token
+     */
+    public Claims parseRefreshToken(String token){
+
+        return requireUse(parseToken(token), REFRESH);
+    }
+
+    /**
+     *
+     * @return the longest any token issued here can stay valid
+     */
+    public long maxTokenValidityMillis(){
+
+        return Math.max(accessTokenValidityMillis, refreshTokenValidityMillis);
+    }
+
+    private static Claims requireUse(Claims claims, String use) {
+        if (!use.equals(claims.get(TOKEN_USE_CLAIM, String.class))) {
+            throw new MalformedJwtException("Expected a " + use + " token");
+        }
+        return claims;
+    }
+
+    /**
+     * <p>
+     *     HS256 needs at least 256 bits of key. A shorter secret is stretched through SHA-256 so existing
+     *     configuration keeps working, but that adds no entropy: configure a longer secret.
+     * </p>
+     */
+    private static SecretKey deriveKey(String secretKey) {
+        byte[] bytes = secretKey.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= 32) {
+            return Keys.hmacShaKeyFor(bytes);
+        }
+
+        log.warn("jwt.secretKey is shorter than 256 bits, deriving the signing key with SHA-256");
+        try {
+            return Keys.hmacShaKeyFor(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
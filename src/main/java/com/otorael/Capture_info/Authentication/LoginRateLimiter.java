@@ -0,0 +1,156 @@
+package com.otorael.Capture_info.Authentication;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Throttles registration, login and refresh attempts before they reach the database or BCrypt.
+ * <p>
+ *     Attempts are charged against two families of {@link TokenBucket}s: one per client address, checked
+ *     by {@link RateLimitFilter} before the request body is even read, and one per target email, checked by
+ *     the controller once the body is parsed. The address buckets stop a single source from spraying many
+ *     accounts, the email buckets stop many sources from guessing one account's password.
+ * </p>
+ * <p>
+ *     Buckets sit in {@link ConcurrentHashMap}s, whose bins are locked independently, and each bucket
+ *     updates itself by compare-and-set. Buckets that have refilled and gone unused for
+ *     {@code security.rate-limit.idle-evict-ms} are dropped by a scheduled sweep. Because a client can cycle
+ *     through many addresses, an IPv6 prefix for instance, each map is also capped at
+ *     {@code security.rate-limit.max-keys}.
+ * </p>
+ */
+@Component
+public class LoginRateLimiter {
+
+    /**
+     * Address bucket key for clients whose address could not be worked out, not a valid address itself.
+     */
+    static final String UNKNOWN_ADDRESS = "unknown";
+
+    private final boolean enabled;
+
+    private final long addressCapacity;
+    private final long addressRefillPerMinute;
+    private final long emailCapacity;
+    private final long emailRefillPerMinute;
+    private final long idleNanos;
+    private final int maxKeys;
+
+    private final Map<String, TokenBucket> addressBuckets = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> emailBuckets = new ConcurrentHashMap<>();
+
+    private final LongAdder evictions = new LongAdder();
+
+    public LoginRateLimiter(
+            @Value("${security.rate-limit.enabled:true}") boolean enabled,
+            @Value("${security.rate-limit.address.capacity:20}") long addressCapacity,
+            @Value("${security.rate-limit.address.refill-per-minute:20}") long addressRefillPerMinute,
+            @Value("${security.rate-limit.email.capacity:5}") long emailCapacity,
+            @Value("${security.rate-limit.email.refill-per-minute:5}") long emailRefillPerMinute,
+            @Value("${security.rate-limit.idle-evict-ms:600000}") long idleEvictMillis,
+            @Value("${security.rate-limit.max-keys:100000}") int maxKeys
+    ) {
+        this.enabled = enabled;
+        this.addressCapacity = addressCapacity;
+        this.addressRefillPerMinute = addressRefillPerMinute;
+        this.emailCapacity = emailCapacity;
+        this.emailRefillPerMinute = emailRefillPerMinute;
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleEvictMillis);
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     *
+     * @param address the client address the attempt came from, null if it could not be worked out
+     * @return 0 if the attempt may go ahead, otherwise how many seconds the client should wait
+     */
+    public long tryAcquireAddress(String address) {
+        if (!enabled) {
+            return 0;
+        }
+        /* clients without a usable address share one budget rather than getting none */
+        return tryAcquire(addressBuckets, address == null ? UNKNOWN_ADDRESS : address, addressCapacity, addressRefillPerMinute);
+    }
+
+    /**
+     *
+     * @param email the account the attempt targets, compared case-insensitively
+     * @return 0 if the attempt may go ahead, otherwise how many seconds the client should wait
+     */
+    public long tryAcquireEmail(String email) {
+        if (!enabled || email == null) {
+            return 0;
+        }
+        return tryAcquire(emailBuckets, email.trim().toLowerCase(Locale.ROOT), emailCapacity, emailRefillPerMinute);
+    }
+
+    private long tryAcquire(Map<String, TokenBucket> buckets, String key, long capacity, long refillPerMinute) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(key);
+
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                evict(buckets, now);
+            }
+            bucket = buckets.computeIfAbsent(key, ignored -> new TokenBucket(capacity, refillPerMinute, now));
+        }
+
+        return bucket.tryAcquire(now) ? 0 : bucket.secondsUntilNextToken(now);
+    }
+
+    /**
+     * Drops buckets that are full and have not been touched for the idle period.
+     */
+    @Scheduled(
+            fixedDelayString = "${security.rate-limit.sweep-interval-ms:60000}",
+            initialDelayString = "${security.rate-limit.sweep-interval-ms:60000}"
+    )
+    public void evictIdle() {
+        long now = System.nanoTime();
+        sweep(addressBuckets, now);
+        sweep(emailBuckets, now);
+    }
+
+    private void sweep(Map<String, TokenBucket> buckets, long now) {
+        Iterator<TokenBucket> iterator = buckets.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().isIdle(now, idleNanos)) {
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    private void evict(Map<String, TokenBucket> buckets, long now) {
+        sweep(buckets, now);
+
+        /* still full of active keys, most likely a rotating source: forget arbitrary ones, which only lets them retry */
+        int target = maxKeys - Math.max(1, maxKeys / 10);
+        Iterator<TokenBucket> iterator = buckets.values().iterator();
+        while (buckets.size() > target && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    public int addressKeys() {
+        return addressBuckets.size();
+    }
+
+    public int emailKeys() {
+        return emailBuckets.size();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+}
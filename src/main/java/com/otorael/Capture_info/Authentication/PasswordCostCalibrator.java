@@ -0,0 +1,64 @@
+package com.otorael.Capture_info.Authentication;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ *     Picks the BCrypt cost for this host at startup. Every extra cost step doubles the work, so one
+ *     measurement at the minimum cost is enough to predict the highest cost that still fits the target
+ *     latency budget.
+ * </p>
+ */
+final class PasswordCostCalibrator {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordCostCalibrator.class);
+
+    private static final String SAMPLE_PASSWORD = "calibration-Password-01";
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int MEASURED_ROUNDS = 3;
+
+    private PasswordCostCalibrator() {
+    }
+
+    /**
+     *
+     * @param targetMillis how long one hash may take
+     * @param minStrength the lowest cost ever used, also the cost that gets measured
+     * @param maxStrength the highest cost ever used
+     * @return the highest cost between min and max whose predicted hash time fits the target
+     */
+    static int calibrate(long targetMillis, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            probe.encode(SAMPLE_PASSWORD);
+        }
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long started = System.nanoTime();
+            probe.encode(SAMPLE_PASSWORD);
+            best = Math.min(best, System.nanoTime() - started);
+        }
+
+        long targetNanos = TimeUnit.MILLISECONDS.toNanos(targetMillis);
+        int strength = minStrength;
+        long predicted = best;
+        while (strength < maxStrength && predicted * 2 <= targetNanos) {
+            predicted *= 2;
+            strength++;
+        }
+
+        log.info("BCrypt cost calibrated to {} - {} ms at cost {}, predicted {} ms, target {} ms",
+                strength,
+                TimeUnit.NANOSECONDS.toMillis(best),
+                minStrength,
+                TimeUnit.NANOSECONDS.toMillis(predicted),
+                targetMillis
+        );
+        return strength;
+    }
+}
@@ -0,0 +1,123 @@
+package com.otorael.Capture_info.Authentication;
+
+import com.otorael.Capture_info.Configuration.CaptureMetrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing on its own fixed size pool so a login burst cannot tie up request threads.
+ * <p>
+ *     The pool has {@code security.hashing.threads} threads (defaults to one per core) and a bounded
+ *     queue of {@code security.hashing.queue-capacity}. When the queue is full the returned future fails
+ *     straight away with {@link HashingCapacityExceededException} instead of letting requests pile up.
+ *     Time spent waiting in the queue and time spent hashing are measured separately.
+ * </p>
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingExecutor.class);
+
+    private final PasswordEncoder passwordEncoder;
+    private final CaptureMetrics captureMetrics;
+    private final ThreadPoolExecutor executor;
+
+    public PasswordHashingExecutor(
+            PasswordEncoder passwordEncoder,
+            CaptureMetrics captureMetrics,
+            @Value("${security.hashing.threads:0}") int threads,
+            @Value("${security.hashing.queue-capacity:64}") int queueCapacity
+    ) {
+        this.passwordEncoder = passwordEncoder;
+        this.captureMetrics = captureMetrics;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        log.info("Password hashing pool started - threads: {}, queue capacity: {}", poolSize, queueCapacity);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     *
+     * @param rawPassword the password to hash
+     * @return a future completing with the encoded password
+     */
+    public CompletableFuture<String> encode(CharSequence rawPassword) {
+        return submit(captureMetrics.bcryptEncode(), () -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     *
+     * @param rawPassword the password the user typed
+     * @param encodedPassword the stored hash
+     * @return a future completing with true if they match
+     */
+    public CompletableFuture<Boolean> matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(captureMetrics.bcryptMatches(), () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     *
+     * @param encodedPassword a stored hash
+     * @return true if it was made with weaker parameters than the encoder now uses
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> CompletableFuture<T> submit(Timer hashTimer, Supplier<T> work) {
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long started = System.nanoTime();
+                captureMetrics.hashQueueWait().record(started - queuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return work.get();
+                } finally {
+                    hashTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            captureMetrics.hashRejected().increment();
+            return CompletableFuture.failedFuture(new HashingCapacityExceededException("Password hashing queue is full"));
+        }
+    }
+
+    public int queueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int activeCount() {
+        return executor.getActiveCount();
+    }
+}
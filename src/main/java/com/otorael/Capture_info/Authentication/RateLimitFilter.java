@@ -0,0 +1,120 @@
+package com.otorael.Capture_info.Authentication;
+
+import com.otorael.Capture_info.Configuration.CaptureMetrics;
+import com.otorael.Capture_info.Network.ClientAddressResolver;
+import com.otorael.Capture_info.ResponseDTO.EncodedJson;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.RequestPath;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * <p>
+ *     Charges every registration, login and refresh attempt to its client address and refuses it with
+ *     429 (TOO_MANY_REQUESTS) once the address has used up its budget, before the body is read and before
+ *     any database lookup or password hash. Per-email throttling happens in the controller.
+ * </p>
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    /**
+     * Throttled paths within the application, decoded, mapped to the operation name used for metrics.
+     */
+    private static final Map<String, String> OPERATIONS = Map.of(
+            "/api/v1/public/register", "register",
+            "/api/v1/public/login", "login",
+            "/api/v1/public/refresh", "refresh"
+    );
+
+    private static final EncodedJson TOO_MANY_ATTEMPTS =
+            EncodedJson.message("failure", "Too many attempts, try again later");
+
+    private final LoginRateLimiter loginRateLimiter;
+
+    private final ClientAddressResolver clientAddressResolver;
+
+    private final CaptureMetrics captureMetrics;
+
+    public RateLimitFilter(
+            LoginRateLimiter loginRateLimiter,
+            ClientAddressResolver clientAddressResolver,
+            CaptureMetrics captureMetrics
+    ) {
+        this.loginRateLimiter = loginRateLimiter;
+        this.clientAddressResolver = clientAddressResolver;
+        this.captureMetrics = captureMetrics;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod()) || operation(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        String address = clientAddressResolver.resolve(request).text();
+        long retryAfter = loginRateLimiter.tryAcquireAddress(address);
+
+        if (retryAfter > 0) {
+            captureMetrics.authOutcome(operation(request), "throttled");
+            log.warn("Attempt throttled for address {} on {}", address, request.getRequestURI());
+
+            /* written here rather than through sendError, the /error dispatch would go through security again */
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setContentLength(TOO_MANY_ATTEMPTS.length());
+            TOO_MANY_ATTEMPTS.writeTo(response.getOutputStream());
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private static String operation(HttpServletRequest request) {
+        return operation(RequestPath.parse(request.getRequestURI(), request.getContextPath()).pathWithinApplication());
+    }
+
+    /**
+     * Shared with the reactive stack's throttle.
+     * <p>
+     *     Handlers are matched on decoded path segments without their {@code ;} parameters, so the lookup
+     *     decodes the same way; matching the raw path would let {@code /api/v1/public/%6Cogin} reach the login
+     *     handler without being charged.
+     * </p>
+     *
+     * @param path the request path within the application
+     * @return the operation name of a throttled path, null for any other path
+     */
+    static String operation(PathContainer path) {
+        StringBuilder decoded = new StringBuilder(path.value().length());
+        for (PathContainer.Element element : path.elements()) {
+            decoded.append(element instanceof PathContainer.PathSegment segment
+                    ? segment.valueToMatch()
+                    : element.value());
+        }
+        return OPERATIONS.get(decoded.toString());
+    }
+}
@@ -0,0 +1,144 @@
+package com.otorael.Capture_info.Authentication;
+
+import com.otorael.Capture_info.Model.RefreshTokenFamilyModel;
+import com.otorael.Capture_info.Repository.RefreshTokenFamilyRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers, per refresh token family, the one refresh token that may be rotated next.
+ * <p>
+ *     Rotation is a compare-and-set of the family's current token id, so state grows with the number of live
+ *     logins rather than with every token ever rotated. A token that is not the current one was already rotated
+ *     and has come back, which means it leaked: the family is revoked and stays revoked until its newest token
+ *     would have expired.
+ * </p>
+ * <p>
+ *     With {@code jwt.revocation.persistent=true} families live in {@code refresh_token_families} and the
+ *     compare-and-set is a conditional update, so it holds across nodes and restarts and a family the database
+ *     does not know is rejected. Otherwise they are kept in memory on each node, and a family this node has not
+ *     seen, e.g. after a restart, is taken over from the presented token.
+ * </p>
+ */
+@Component
+public class RefreshTokenFamilies {
+
+    /**
+     * What presenting a refresh token did to its family.
+     */
+    public enum Rotation {
+        /** the token was current, the family moved on to the next one */
+        ADVANCED,
+        /** the token had already been rotated, the family is now revoked */
+        REUSED,
+        /** the family was revoked earlier or is unknown */
+        REVOKED
+    }
+
+    /**
+     *
+     * @param currentTokenId jti of the newest refresh token, null once the family is revoked
+     * @param expiresAtMillis when the newest refresh token expires
+     */
+    private record Family(String currentTokenId, long expiresAtMillis) {
+    }
+
+    private final Map<String, Family> families = new ConcurrentHashMap<>();
+    private final RefreshTokenFamilyRepository refreshTokenFamilyRepository;
+    private final boolean persistent;
+    private final long refreshTokenValidityMillis;
+
+    public RefreshTokenFamilies(
+            RefreshTokenFamilyRepository refreshTokenFamilyRepository,
+            @Value("${jwt.revocation.persistent:false}") boolean persistent,
+            @Value("${jwt.refresh-token-validity-ms:1209600000}") long refreshTokenValidityMillis
+    ) {
+        this.refreshTokenFamilyRepository = refreshTokenFamilyRepository;
+        this.persistent = persistent;
+        this.refreshTokenValidityMillis = refreshTokenValidityMillis;
+    }
+
+    /**
+     *
+     * @param family a new family id
+     * @param tokenId jti of the family's first refresh token
+     */
+    public void start(String family, String tokenId) {
+        long expiresAt = System.currentTimeMillis() + refreshTokenValidityMillis;
+        if (persistent) {
+            refreshTokenFamilyRepository.save(
+                    new RefreshTokenFamilyModel(family, tokenId, Instant.ofEpochMilli(expiresAt)));
+        } else {
+            families.put(family, new Family(tokenId, expiresAt));
+        }
+    }
+
+    /**
+     *
+     * @param family the presented token's family
+     * @param presentedTokenId the presented token's jti
+     * @param nextTokenId jti of the refresh token that replaces it if the rotation goes ahead
+     * @return what happened to the family
+     */
+    public Rotation rotate(String family, String presentedTokenId, String nextTokenId) {
+        long expiresAt = System.currentTimeMillis() + refreshTokenValidityMillis;
+        if (persistent) {
+            return rotatePersisted(family, presentedTokenId, nextTokenId, expiresAt);
+        }
+
+        Rotation[] rotation = new Rotation[1];
+        families.compute(family, (key, current) -> {
+            if (current == null || presentedTokenId.equals(current.currentTokenId())) {
+                rotation[0] = Rotation.ADVANCED;
+                return new Family(nextTokenId, expiresAt);
+            }
+            if (current.currentTokenId() == null) {
+                rotation[0] = Rotation.REVOKED;
+                return current;
+            }
+            rotation[0] = Rotation.REUSED;
+            return new Family(null, current.expiresAtMillis());
+        });
+        return rotation[0];
+    }
+
+    private Rotation rotatePersisted(String family, String presentedTokenId, String nextTokenId, long expiresAt) {
+        if (refreshTokenFamilyRepository.advance(
+                family, presentedTokenId, nextTokenId, Instant.ofEpochMilli(expiresAt)) == 1) {
+            return Rotation.ADVANCED;
+        }
+
+        RefreshTokenFamilyModel row = refreshTokenFamilyRepository.findById(family).orElse(null);
+        if (row == null || row.getCurrentTokenId() == null) {
+            return Rotation.REVOKED;
+        }
+        refreshTokenFamilyRepository.revoke(family);
+        return Rotation.REUSED;
+    }
+
+    /**
+     * Forgets families whose newest token has expired.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        families.values().removeIf(family -> family.expiresAtMillis() <= now);
+
+        if (persistent) {
+            refreshTokenFamilyRepository.deleteExpired(Instant.ofEpochMilli(now));
+        }
+    }
+
+    /**
+     *
+     * @return families held in memory on this node, 0 when they are persisted
+     */
+    public int size() {
+        return families.size();
+    }
+}
@@ -0,0 +1,109 @@
+package com.otorael.Capture_info.Authentication;
+
+import com.otorael.Capture_info.Configuration.CaptureMetrics;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Issues access/refresh token pairs and rotates refresh tokens.
+ * <p>
+ *     Renewal never touches the users table or BCrypt: a refresh token is a signed JWT, so checking it is a
+ *     signature verification plus a compare-and-set on its family in {@link RefreshTokenFamilies}. Every
+ *     refresh token is single use: rotating one makes its successor the family's only valid token. Presenting
+ *     a token that was already rotated means it leaked, so the whole family is revoked and the client has to
+ *     log in again.
+ * </p>
+ */
+@Component
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    /**
+     *
+     * @param accessToken short-lived bearer token for API calls
+     * @param refreshToken single use token for /public/refresh
+     */
+    public record TokenPair(String accessToken, String refreshToken) {
+    }
+
+    private final JwtUtility jwtUtility;
+    private final RefreshTokenFamilies refreshTokenFamilies;
+    private final CaptureMetrics captureMetrics;
+
+    public RefreshTokenService(
+            JwtUtility jwtUtility,
+            RefreshTokenFamilies refreshTokenFamilies,
+            CaptureMetrics captureMetrics
+    ) {
+        this.jwtUtility = jwtUtility;
+        this.refreshTokenFamilies = refreshTokenFamilies;
+        this.captureMetrics = captureMetrics;
+    }
+
+    /**
+     *
+     * @param email the user that just registered or logged in
+     * @return a new pair starting a new refresh token family
+     */
+    public TokenPair issue(String email) {
+        String family = UUID.randomUUID().toString();
+        String tokenId = UUID.randomUUID().toString();
+        TokenPair tokens = captureMetrics.jwtIssue().record(() -> new TokenPair(
+                jwtUtility.TokenGeneration(email),
+                jwtUtility.RefreshTokenGeneration(email, family, tokenId)
+        ));
+        refreshTokenFamilies.start(family, tokenId);
+        return tokens;
+    }
+
+    /**
+     *
+     * @param refreshToken the refresh token the client holds
+     * @return a new pair, or null if the token is invalid, expired, already used or from a revoked family
+     */
+    public TokenPair rotate(String refreshToken) {
+        Claims claims;
+        try {
+            claims = jwtUtility.parseRefreshToken(refreshToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            captureMetrics.authOutcome("refresh", "invalid");
+            return null;
+        }
+
+        String email = claims.getSubject();
+        String family = claims.get(JwtUtility.FAMILY_CLAIM, String.class);
+        String tokenId = claims.getId();
+        if (family == null || tokenId == null) {
+            captureMetrics.authOutcome("refresh", "invalid");
+            return null;
+        }
+
+        String nextTokenId = UUID.randomUUID().toString();
+        switch (refreshTokenFamilies.rotate(family, tokenId, nextTokenId)) {
+            case REVOKED -> {
+                captureMetrics.authOutcome("refresh", "blacklisted");
+                return null;
+            }
+            case REUSED -> {
+                /* a rotated token came back: someone else holds a copy, the whole family has been ended */
+                captureMetrics.authOutcome("refresh", "reused");
+                log.warn("Refresh token reuse detected, family revoked - Email: {}", email);
+                return null;
+            }
+            case ADVANCED -> {
+            }
+        }
+
+        captureMetrics.authOutcome("refresh", "success");
+        return captureMetrics.jwtIssue().record(() -> new TokenPair(
+                jwtUtility.TokenGeneration(email),
+                jwtUtility.RefreshTokenGeneration(email, family, nextTokenId)
+        ));
+    }
+}
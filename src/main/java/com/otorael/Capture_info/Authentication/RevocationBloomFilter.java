@@ -0,0 +1,51 @@
+package com.otorael.Capture_info.Authentication;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ *     Lock-free Bloom filter over token digests. A negative answer is definite, so the common
+ *     "token is not revoked" case never touches the exact revocation map.
+ *     The digest is already uniformly distributed, so its words are used directly as the two base
+ *     hashes for double hashing instead of hashing again.
+ * </p>
+ */
+final class RevocationBloomFilter {
+
+    private static final int HASHES = 4;
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+
+    RevocationBloomFilter(int bits) {
+        int wordCount = Math.max(1, (bits + 63) >>> 6);
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount << 6;
+    }
+
+    void add(TokenDigest digest) {
+        for (int i = 0; i < HASHES; i++) {
+            long bit = bit(digest, i);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+    }
+
+    boolean mightContain(TokenDigest digest) {
+        for (int i = 0; i < HASHES; i++) {
+            long bit = bit(digest, i);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long bit(TokenDigest digest, int i) {
+        return Math.floorMod(digest.a() + i * digest.b(), bitCount);
+    }
+}
@@ -1,5 +1,8 @@
 package com.otorael.Capture_info.Authentication;
 
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -15,11 +18,15 @@ public class SecurityConfiguration {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
-    public SecurityConfiguration(JwtAuthenticationFilter jwtAuthenticationFilter) {
+    private final RateLimitFilter rateLimitFilter;
+
+    public SecurityConfiguration(JwtAuthenticationFilter jwtAuthenticationFilter, RateLimitFilter rateLimitFilter) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.rateLimitFilter = rateLimitFilter;
     }
 
     @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
     public SecurityFilterChain filterChain(HttpSecurity httpSecurity)
             throws Exception{
         httpSecurity
@@ -27,16 +34,39 @@ public class SecurityConfiguration {
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auths -> auths
+                        /* an error page for a status a filter already chose, e.g. the JWT filter's 401 */
+                        .dispatcherTypeMatchers(DispatcherType.ERROR).permitAll()
+                        /* the second half of a streamed response, e.g. the export, authorized on its way in */
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/v1/public/**").permitAll()
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                        /* loggers and metrics can change or reveal the node's state, see JwtAuthenticationFilter */
+                        .requestMatchers("/actuator/**").hasRole(JwtAuthenticationFilter.ADMIN_ROLE)
                         .requestMatchers("/api/v1/protected/**").authenticated()
                         .anyRequest().authenticated())
+                .addFilterBefore(rateLimitFilter, UsernamePasswordAuthenticationFilter.class)
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
         return httpSecurity.build();
     }
 
+    /**
+     * <p>
+     *     The BCrypt cost is fixed by {@code security.password.strength} when set, otherwise it is calibrated
+     *     on this host to fit {@code security.password.target-millis}. Every hash records its own cost, so
+     *     hashes made under an older cost keep working and are upgraded on the next successful login.
+     * </p>
+     */
     @Bean
-    public PasswordEncoder passwordEncoder(){
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${security.password.strength:0}") int strength,
+            @Value("${security.password.target-millis:100}") long targetMillis,
+            @Value("${security.password.min-strength:10}") int minStrength,
+            @Value("${security.password.max-strength:14}") int maxStrength
+    ){
+        if (strength <= 0) {
+            strength = PasswordCostCalibrator.calibrate(targetMillis, minStrength, maxStrength);
+        }
+        return new BCryptPasswordEncoder(strength);
     }
 }
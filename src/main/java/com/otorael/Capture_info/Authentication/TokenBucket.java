@@ -0,0 +1,98 @@
+package com.otorael.Capture_info.Authentication;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A lock-free token bucket.
+ * <p>
+ *     The level and the time it was last topped up live in one immutable snapshot swapped by compare-and-set,
+ *     so concurrent attempts for the same key never block each other and never lose a refill.
+ *     Tokens are counted in millitokens to keep the arithmetic integral.
+ * </p>
+ */
+final class TokenBucket {
+
+    private static final long SCALE = 1_000;
+
+    private record State(long milliTokens, long refilledAtNanos) {
+    }
+
+    private final long capacityMilliTokens;
+    private final long nanosPerMilliToken;
+    private final AtomicReference<State> state;
+
+    /**
+     *
+     * @param capacity how many attempts a burst may spend at once
+     * @param refillPerMinute how many attempts come back per minute
+     * @param nowNanos the current {@link System#nanoTime()}, the bucket starts full
+     */
+    TokenBucket(long capacity, long refillPerMinute, long nowNanos) {
+        this.capacityMilliTokens = capacity * SCALE;
+        this.nanosPerMilliToken = Math.max(1, 60_000_000_000L / (Math.max(1, refillPerMinute) * SCALE));
+        this.state = new AtomicReference<>(new State(capacityMilliTokens, nowNanos));
+    }
+
+    /**
+     *
+     * @param nowNanos the current {@link System#nanoTime()}
+     * @return true if a token was taken, false if the bucket is empty
+     */
+    boolean tryAcquire(long nowNanos) {
+        while (true) {
+            State current = state.get();
+            State refilled = refill(current, nowNanos);
+
+            if (refilled.milliTokens() < SCALE) {
+                /* keep the refill so the clock does not drift, the attempt itself is refused */
+                if (refilled != current) {
+                    state.compareAndSet(current, refilled);
+                }
+                return false;
+            }
+            if (state.compareAndSet(current, new State(refilled.milliTokens() - SCALE, refilled.refilledAtNanos()))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     *
+     * @param nowNanos the current {@link System#nanoTime()}
+     * @return roughly how many seconds until the next token is available, at least 1
+     */
+    long secondsUntilNextToken(long nowNanos) {
+        State refilled = refill(state.get(), nowNanos);
+        long missing = Math.max(0, SCALE - refilled.milliTokens());
+        return Math.max(1, (missing * nanosPerMilliToken + 999_999_999L) / 1_000_000_000L);
+    }
+
+    /**
+     *
+     * @param nowNanos the current {@link System#nanoTime()}
+     * @param idleNanos how long an untouched bucket is kept
+     * @return true if the bucket has refilled completely and has not been used for {@code idleNanos},
+     *         so dropping it changes nothing for the next attempt
+     */
+    boolean isIdle(long nowNanos, long idleNanos) {
+        State current = state.get();
+        return nowNanos - current.refilledAtNanos() >= idleNanos
+                && refill(current, nowNanos).milliTokens() >= capacityMilliTokens;
+    }
+
+    private State refill(State current, long nowNanos) {
+        /* a full bucket earns nothing, restamp it so the next token taken is not refunded at once */
+        if (current.milliTokens() >= capacityMilliTokens) {
+            return current.refilledAtNanos() == nowNanos ? current : new State(capacityMilliTokens, nowNanos);
+        }
+        long earned = (nowNanos - current.refilledAtNanos()) / nanosPerMilliToken;
+        if (earned <= 0) {
+            return current;
+        }
+        long milliTokens = current.milliTokens() + earned;
+        if (milliTokens >= capacityMilliTokens) {
+            return new State(capacityMilliTokens, nowNanos);
+        }
+        return new State(milliTokens, current.refilledAtNanos() + earned * nanosPerMilliToken);
+    }
+}
@@ -0,0 +1,42 @@
+package com.otorael.Capture_info.Authentication;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * <p>
+ *     SHA-256 digest of a raw token, compared by value. Used as the key wherever a token has to be
+ *     remembered so the token itself is never held longer than the request.
+ * </p>
+ *
+ * @param a bits 0-63 of the digest
+ * @param b bits 64-127 of the digest
+ * @param c bits 128-191 of the digest
+ * @param d bits 192-255 of the digest
+ */
+record TokenDigest(long a, long b, long c, long d) {
+
+    static TokenDigest of(String token) {
+        try {
+            ByteBuffer hash = ByteBuffer.wrap(MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.US_ASCII)));
+            return new TokenDigest(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+        } catch (NoSuchAlgorithmException e) {
+            /* every Java platform is required to ship SHA-256 */
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static TokenDigest fromHex(String hex) {
+        ByteBuffer hash = ByteBuffer.wrap(HexFormat.of().parseHex(hex));
+        return new TokenDigest(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+    }
+
+    String toHex() {
+        HexFormat hex = HexFormat.of();
+        return hex.toHexDigits(a) + hex.toHexDigits(b) + hex.toHexDigits(c) + hex.toHexDigits(d);
+    }
+}
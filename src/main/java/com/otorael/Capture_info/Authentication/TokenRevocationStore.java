@@ -0,0 +1,196 @@
+package com.otorael.Capture_info.Authentication;
+
+import com.otorael.Capture_info.Model.RevokedTokenModel;
+import com.otorael.Capture_info.Repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps track of revoked tokens until they would have expired on their own.
+ * <p>
+ *     Lookups are lock-free: a Bloom filter answers the common "not revoked" case, and only a possible
+ *     hit goes on to the exact {@link ConcurrentHashMap} of digest to expiry. A scheduled purge drops
+ *     expired entries and rebuilds the filter so it does not fill up over time.
+ * </p>
+ * <p>
+ *     With {@code jwt.revocation.persistent=true} revocations are also written to {@code revoked_tokens},
+ *     loaded back on startup and polled every {@code jwt.revocation.sync-interval-ms}, so they survive
+ *     restarts and are shared between nodes using the same database. The poll follows {@code revoked_at},
+ *     which the database stamps, and re-reads a few seconds behind the newest row it has seen so a
+ *     revocation that commits late is still picked up.
+ * </p>
+ */
+@Component
+public class TokenRevocationStore {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationStore.class);
+
+    /**
+     * How far behind the newest synced row each poll starts, longer than an insert takes to commit.
+     */
+    static final Duration SYNC_OVERLAP = Duration.ofSeconds(5);
+
+    private final Map<TokenDigest, Long> revoked = new ConcurrentHashMap<>();
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final JwtUtility jwtUtility;
+    private final boolean persistent;
+    private final int bloomBits;
+
+    /** serialises writers against filter rebuilds, lookups never take it */
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile RevocationBloomFilter bloomFilter;
+    /** newest revoked_at read so far, by the database's clock */
+    private volatile Instant syncedUpTo = Instant.EPOCH;
+
+    private final LongAdder bloomNegatives = new LongAdder();
+    private final LongAdder exactLookups = new LongAdder();
+
+    public TokenRevocationStore(
+            RevokedTokenRepository revokedTokenRepository,
+            JwtUtility jwtUtility,
+            @Value("${jwt.revocation.persistent:false}") boolean persistent,
+            @Value("${jwt.revocation.bloom-bits:1048576}") int bloomBits
+    ) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.jwtUtility = jwtUtility;
+        this.persistent = persistent;
+        this.bloomBits = bloomBits;
+        this.bloomFilter = new RevocationBloomFilter(bloomBits);
+    }
+
+    @PostConstruct
+    void load() {
+        if (persistent) {
+            sync();
+            log.info("Loaded {} persisted token revocations", revoked.size());
+        }
+    }
+
+    /**
+     *
+     * @param token the raw token to check
+     * @return true if the token was revoked and has not expired yet
+     */
+    public boolean isRevoked(String token) {
+        TokenDigest digest = TokenDigest.of(token);
+
+        if (!bloomFilter.mightContain(digest)) {
+            bloomNegatives.increment();
+            return false;
+        }
+
+        exactLookups.increment();
+        Long expiresAt = revoked.get(digest);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    /**
+     * Revokes a token for the longest time it can still be valid: the longest token lifetime from now.
+     *
+     * @param token the raw token to revoke
+     */
+    public void revoke(String token) {
+        revoke(token, System.currentTimeMillis() + jwtUtility.maxTokenValidityMillis());
+    }
+
+    /**
+     *
+     * @param token the raw token to revoke
+     * @param expiresAtMillis the token's exp, after which the revocation can be forgotten
+     */
+    public void revoke(String token, long expiresAtMillis) {
+        TokenDigest digest = TokenDigest.of(token);
+        remember(digest, expiresAtMillis);
+
+        if (persistent) {
+            try {
+                revokedTokenRepository.save(new RevokedTokenModel(digest.toHex(), Instant.ofEpochMilli(expiresAtMillis)));
+            } catch (DataIntegrityViolationException e) {
+                /* new rows are inserted without a read first, the row already there revokes the same token */
+                log.debug("Token was already revoked - Message: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void remember(TokenDigest digest, long expiresAtMillis) {
+        writeLock.lock();
+        try {
+            revoked.merge(digest, expiresAtMillis, Math::max);
+            bloomFilter.add(digest);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Forgets expired revocations and rebuilds the Bloom filter from what is left.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+
+        writeLock.lock();
+        try {
+            revoked.values().removeIf(expiresAt -> expiresAt <= now);
+            RevocationBloomFilter rebuilt = new RevocationBloomFilter(bloomBits);
+            revoked.keySet().forEach(rebuilt::add);
+            bloomFilter = rebuilt;
+        } finally {
+            writeLock.unlock();
+        }
+
+        if (persistent) {
+            revokedTokenRepository.deleteExpired(Instant.ofEpochMilli(now));
+        }
+    }
+
+    /**
+     * Picks up revocations written by other nodes since the last sync.
+     */
+    @Scheduled(
+            fixedDelayString = "${jwt.revocation.sync-interval-ms:5000}",
+            initialDelayString = "${jwt.revocation.sync-interval-ms:5000}"
+    )
+    public void sync() {
+        if (!persistent) {
+            return;
+        }
+
+        /* re-reading the overlap is harmless, remember keeps the later expiry */
+        Instant latest = syncedUpTo;
+        List<RevokedTokenModel> fresh = revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(
+                latest.minus(SYNC_OVERLAP), Instant.now());
+        for (RevokedTokenModel row : fresh) {
+            remember(TokenDigest.fromHex(row.getTokenDigest()), row.getExpiresAt().toEpochMilli());
+            if (row.getRevokedAt().isAfter(latest)) {
+                latest = row.getRevokedAt();
+            }
+        }
+        syncedUpTo = latest;
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    public long bloomNegatives() {
+        return bloomNegatives.sum();
+    }
+
+    public long exactLookups() {
+        return exactLookups.sum();
+    }
+}
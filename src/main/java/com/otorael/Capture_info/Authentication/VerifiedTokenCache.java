@@ -0,0 +1,122 @@
+package com.otorael.Capture_info.Authentication;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ *     Remembers tokens that already passed signature and expiry checks, so a client reusing the same
+ *     token does not pay for a full JWT parse on every request.
+ * </p>
+ * <p>
+ *     Entries are keyed by the SHA-256 digest of the token rather than the token itself and live until
+ *     the token's own {@code exp}. When the cache is full, expired entries are purged first and then
+ *     arbitrary entries are evicted until it is back under {@code jwt.cache.max-size}.
+ *     The cache never decides whether a token is revoked: callers check the blacklist before every lookup.
+ * </p>
+ */
+@Component
+public class VerifiedTokenCache {
+
+    /**
+     * A verified token: the authentication to install and when it stops being valid.
+     */
+    record VerifiedToken(UsernamePasswordAuthenticationToken authentication, long expiresAtMillis) {
+    }
+
+    private final Map<TokenDigest, VerifiedToken> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public VerifiedTokenCache(@Value("${jwt.cache.max-size:10000}") int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     *
+     * @param token the raw bearer token
+     * @return the cached authentication, or null if the token is unknown or has expired
+     */
+    public UsernamePasswordAuthenticationToken get(String token) {
+        TokenDigest digest = TokenDigest.of(token);
+        VerifiedToken verified = entries.get(digest);
+
+        if (verified == null) {
+            misses.increment();
+            return null;
+        }
+        if (verified.expiresAtMillis() <= System.currentTimeMillis()) {
+            entries.remove(digest, verified);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return verified.authentication();
+    }
+
+    /**
+     *
+     * @param token a token that just passed verification
+     * @param authentication the authentication built for it
+     * @param expiresAtMillis the token's exp claim
+     */
+    public void put(String token, UsernamePasswordAuthenticationToken authentication, long expiresAtMillis) {
+        if (entries.size() >= maxSize) {
+            evict();
+        }
+        entries.put(TokenDigest.of(token), new VerifiedToken(authentication, expiresAtMillis));
+    }
+
+    /**
+     *
+     * @param token a token that must not be served from the cache any more, e.g. after revocation
+     */
+    public void invalidate(String token) {
+        entries.remove(TokenDigest.of(token));
+    }
+
+    private void evict() {
+        long now = System.currentTimeMillis();
+        int target = maxSize - Math.max(1, maxSize / 10);
+
+        Iterator<VerifiedToken> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().expiresAtMillis() <= now) {
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+
+        iterator = entries.values().iterator();
+        while (entries.size() > target && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+}
@@ -1,9 +1,14 @@
 package com.otorael.Capture_info;
 
+import com.otorael.Capture_info.Configuration.CaptureRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@ImportRuntimeHints(CaptureRuntimeHints.class)
 public class CaptureInfoApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,138 @@
+package com.otorael.Capture_info.Configuration;
+
+import com.otorael.Capture_info.Authentication.LoginRateLimiter;
+import com.otorael.Capture_info.Authentication.PasswordHashingExecutor;
+import com.otorael.Capture_info.Authentication.RefreshTokenFamilies;
+import com.otorael.Capture_info.Authentication.TokenRevocationStore;
+import com.otorael.Capture_info.Authentication.VerifiedTokenCache;
+import com.otorael.Capture_info.Service.CaptureWriter;
+import com.otorael.Capture_info.Service.Implementation.UserLookupCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ *     Exposes the counters the caches, queues and pools already keep as Micrometer meters,
+ *     read at scrape time so the hot paths do not pay anything extra. Hikari pool gauges come from
+ *     Spring Boot's own datasource metrics.
+ * </p>
+ */
+@Component
+public class CaptureGauges implements MeterBinder {
+
+    private final CaptureWriter captureWriter;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationStore tokenRevocationStore;
+    private final RefreshTokenFamilies refreshTokenFamilies;
+    private final UserLookupCache userLookupCache;
+    private final LoginRateLimiter loginRateLimiter;
+    private final ObjectProvider<ReplicaRoutingDataSource> replicaRouting;
+
+    public CaptureGauges(
+            CaptureWriter captureWriter,
+            PasswordHashingExecutor passwordHashingExecutor,
+            VerifiedTokenCache verifiedTokenCache,
+            TokenRevocationStore tokenRevocationStore,
+            RefreshTokenFamilies refreshTokenFamilies,
+            UserLookupCache userLookupCache,
+            LoginRateLimiter loginRateLimiter,
+            ObjectProvider<ReplicaRoutingDataSource> replicaRouting
+    ) {
+        this.captureWriter = captureWriter;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenRevocationStore = tokenRevocationStore;
+        this.refreshTokenFamilies = refreshTokenFamilies;
+        this.userLookupCache = userLookupCache;
+        this.loginRateLimiter = loginRateLimiter;
+        this.replicaRouting = replicaRouting;
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("capture.writer.queue.depth", captureWriter, CaptureWriter::queueDepth)
+                .description("Captured rows waiting for the background writer")
+                .register(registry);
+        FunctionCounter.builder("capture.writer.rows", captureWriter, CaptureWriter::rowsWritten)
+                .tag("result", "written")
+                .register(registry);
+        FunctionCounter.builder("capture.writer.rows", captureWriter, CaptureWriter::rowsDropped)
+                .tag("result", "dropped")
+                .register(registry);
+        FunctionCounter.builder("capture.writer.rows", captureWriter, CaptureWriter::rowsFailed)
+                .tag("result", "failed")
+                .register(registry);
+        FunctionTimer.builder("capture.writer.flush", captureWriter,
+                        CaptureWriter::flushCount, CaptureWriter::totalFlushNanos, TimeUnit.NANOSECONDS)
+                .description("Batch inserts into information_captured")
+                .register(registry);
+
+        Gauge.builder("capture.hashing.queue.depth", passwordHashingExecutor, PasswordHashingExecutor::queueDepth)
+                .register(registry);
+        Gauge.builder("capture.hashing.active", passwordHashingExecutor, PasswordHashingExecutor::activeCount)
+                .register(registry);
+
+        Gauge.builder("capture.token.cache.size", verifiedTokenCache, VerifiedTokenCache::size)
+                .register(registry);
+        FunctionCounter.builder("capture.token.cache.requests", verifiedTokenCache, VerifiedTokenCache::hits)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("capture.token.cache.requests", verifiedTokenCache, VerifiedTokenCache::misses)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("capture.token.cache.evictions", verifiedTokenCache, VerifiedTokenCache::evictions)
+                .register(registry);
+
+        Gauge.builder("capture.revocation.size", tokenRevocationStore, TokenRevocationStore::size)
+                .register(registry);
+        FunctionCounter.builder("capture.revocation.lookups", tokenRevocationStore, TokenRevocationStore::bloomNegatives)
+                .tag("path", "bloom_negative")
+                .register(registry);
+        FunctionCounter.builder("capture.revocation.lookups", tokenRevocationStore, TokenRevocationStore::exactLookups)
+                .tag("path", "exact")
+                .register(registry);
+        Gauge.builder("capture.refresh.families", refreshTokenFamilies, RefreshTokenFamilies::size)
+                .description("Refresh token families held in memory, one per live login")
+                .register(registry);
+
+        Gauge.builder("capture.user.cache.size", userLookupCache, UserLookupCache::size)
+                .register(registry);
+        FunctionCounter.builder("capture.user.cache.requests", userLookupCache, UserLookupCache::hits)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("capture.user.cache.requests", userLookupCache, UserLookupCache::misses)
+                .tag("result", "miss")
+                .register(registry);
+
+        Gauge.builder("capture.ratelimit.keys", loginRateLimiter, LoginRateLimiter::addressKeys)
+                .tag("key", "address")
+                .register(registry);
+        Gauge.builder("capture.ratelimit.keys", loginRateLimiter, LoginRateLimiter::emailKeys)
+                .tag("key", "email")
+                .register(registry);
+        FunctionCounter.builder("capture.ratelimit.evictions", loginRateLimiter, LoginRateLimiter::evictions)
+                .register(registry);
+
+        ReplicaRoutingDataSource routing = replicaRouting.getIfAvailable();
+        if (routing != null) {
+            Gauge.builder("capture.datasource.replicas", routing, ReplicaRoutingDataSource::healthyReplicas)
+                    .tag("state", "healthy")
+                    .register(registry);
+            Gauge.builder("capture.datasource.replicas", routing, ReplicaRoutingDataSource::replicaCount)
+                    .tag("state", "configured")
+                    .register(registry);
+            Gauge.builder("capture.datasource.replica.lag", routing, ReplicaRoutingDataSource::maxObservedLagMillis)
+                    .baseUnit("milliseconds")
+                    .register(registry);
+        }
+    }
+}
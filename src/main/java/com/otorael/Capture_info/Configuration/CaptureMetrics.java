@@ -0,0 +1,106 @@
+package com.otorael.Capture_info.Configuration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Application meters that are recorded inline on the request path.
+ * <p>
+ *     Phase timers share the name {@code capture.auth.phase} with a {@code phase} tag, so one histogram query
+ *     shows where a login or registration spends its time: {@code db_lookup}, {@code bcrypt_encode},
+ *     {@code bcrypt_matches}, {@code hash_queue_wait}, {@code jwt_issue} and {@code jwt_verify}.
+ *     Outcomes are counted under {@code capture.auth.outcome} tagged by operation and outcome.
+ *     Gauges over the caches and queues live in {@link CaptureGauges}.
+ * </p>
+ */
+@Component
+public class CaptureMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    private final Timer dbLookup;
+    private final Timer bcryptEncode;
+    private final Timer bcryptMatches;
+    private final Timer hashQueueWait;
+    private final Timer jwtIssue;
+    private final Timer jwtVerify;
+    private final Counter hashRejected;
+
+    /** outcome counters by operation, then outcome, registered on first use and looked up from then on */
+    private final Map<String, Map<String, Counter>> authOutcomes = new ConcurrentHashMap<>();
+
+    public CaptureMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.dbLookup = phase("db_lookup");
+        this.bcryptEncode = phase("bcrypt_encode");
+        this.bcryptMatches = phase("bcrypt_matches");
+        this.hashQueueWait = phase("hash_queue_wait");
+        this.jwtIssue = phase("jwt_issue");
+        this.jwtVerify = phase("jwt_verify");
+        this.hashRejected = Counter.builder("capture.hashing.rejected")
+                .description("Password hashes refused because the hashing queue was full")
+                .register(meterRegistry);
+    }
+
+    private Timer phase(String phase) {
+        return Timer.builder("capture.auth.phase")
+                .description("Time spent in one phase of registration, login or token checks")
+                .tag("phase", phase)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     *
+     * @param operation register, login, refresh or token
+     * @param outcome success, conflict, invalid, blacklisted, reused, throttled, rejected or error
+     */
+    public void authOutcome(String operation, String outcome) {
+        Map<String, Counter> byOutcome = authOutcomes.get(operation);
+        if (byOutcome == null) {
+            byOutcome = authOutcomes.computeIfAbsent(operation, ignored -> new ConcurrentHashMap<>());
+        }
+        Counter counter = byOutcome.get(outcome);
+        if (counter == null) {
+            counter = byOutcome.computeIfAbsent(outcome, ignored -> Counter.builder("capture.auth.outcome")
+                    .description("Registration, login and token check results")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+        counter.increment();
+    }
+
+    public Timer dbLookup() {
+        return dbLookup;
+    }
+
+    public Timer bcryptEncode() {
+        return bcryptEncode;
+    }
+
+    public Timer bcryptMatches() {
+        return bcryptMatches;
+    }
+
+    public Timer hashQueueWait() {
+        return hashQueueWait;
+    }
+
+    public Timer jwtIssue() {
+        return jwtIssue;
+    }
+
+    public Timer jwtVerify() {
+        return jwtVerify;
+    }
+
+    public Counter hashRejected() {
+        return hashRejected;
+    }
+}
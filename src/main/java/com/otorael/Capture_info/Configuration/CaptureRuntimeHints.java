@@ -0,0 +1,93 @@
+package com.otorael.Capture_info.Configuration;
+
+import com.otorael.Capture_info.Model.UserModel;
+import com.otorael.Capture_info.RequestDTO.RefreshTokenRequestDTO;
+import com.otorael.Capture_info.ResponseDTO.CapturePageDTO;
+import com.otorael.Capture_info.ResponseDTO.CaptureRecordDTO;
+import com.otorael.Capture_info.ResponseDTO.InformationResponseDTO;
+import com.otorael.Capture_info.ResponseDTO.MessageDTO;
+import com.otorael.Capture_info.ResponseDTO.PinCheckDTO;
+import com.otorael.Capture_info.ResponseDTO.TokenDTO;
+import com.otorael.Capture_info.ResponseDTO.TrafficCountDTO;
+import com.otorael.Capture_info.ResponseDTO.TrafficDTO;
+import com.otorael.Capture_info.ResponseDTO.UserInfoDTO;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.lang.NonNull;
+
+import java.util.List;
+
+/**
+ * What the native image cannot work out by itself from the AOT-processed bean graph.
+ * <p>
+ *     Controllers return {@code ResponseEntity<?>}, so the AOT processor cannot see which DTOs Jackson
+ *     serializes; they and the request bodies are registered for binding here. The entities get their
+ *     persistence hints from Spring's scan of {@code Model} at build time, {@link UserModel} is listed again
+ *     only because it doubles as the register/login request body.
+ * </p>
+ * <p>
+ *     jjwt-api loads its implementation by class name, the PIN list is read from the classpath and
+ *     {@code LazyConnectionDataSourceProxy}, used by replica routing, hands out JDK proxies.
+ * </p>
+ */
+public class CaptureRuntimeHints implements RuntimeHintsRegistrar {
+
+    static final List<Class<?>> BOUND_TYPES = List.of(
+            UserModel.class,
+            RefreshTokenRequestDTO.class,
+            MessageDTO.class,
+            UserInfoDTO.class,
+            TokenDTO.class,
+            InformationResponseDTO.class,
+            CapturePageDTO.class,
+            CaptureRecordDTO.class,
+            PinCheckDTO.class,
+            TrafficDTO.class,
+            TrafficCountDTO.class
+    );
+
+    /* what io.jsonwebtoken.Jwts, Jwks and Keys instantiate or call by name */
+    static final List<String> JJWT_IMPLEMENTATIONS = List.of(
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.DefaultDynamicJwkBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkParserBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetParserBuilder",
+            "io.jsonwebtoken.impl.security.DefaultKeyOperationBuilder",
+            "io.jsonwebtoken.impl.security.DefaultKeyOperationPolicyBuilder",
+            "io.jsonwebtoken.impl.security.JwksBridge",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.impl.security.StandardCurves",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms"
+    );
+
+    @Override
+    public void registerHints(@NonNull RuntimeHints hints, ClassLoader classLoader) {
+        BindingReflectionHintsRegistrar binding = new BindingReflectionHintsRegistrar();
+        binding.registerReflectionHints(hints.reflection(), BOUND_TYPES.toArray(Class<?>[]::new));
+
+        for (String implementation : JJWT_IMPLEMENTATIONS) {
+            hints.reflection().registerType(TypeReference.of(implementation),
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS
+            );
+        }
+
+        /* pin.list-location may point at any list shipped next to the default one */
+        hints.resources().registerPattern("lists/*");
+
+        hints.proxies().registerJdkProxy(ConnectionProxy.class);
+    }
+}
@@ -0,0 +1,55 @@
+package com.otorael.Capture_info.Configuration;
+
+import com.otorael.Capture_info.ResponseDTO.EncodedJson;
+import com.otorael.Capture_info.ResponseDTO.JsonResponseWriter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.NonNull;
+
+import java.io.IOException;
+
+/**
+ * <p>
+ *     Writes {@link EncodedJson} bodies and the DTOs {@link JsonResponseWriter} knows straight to the response
+ *     stream, ahead of Jackson. Anything else, and every request body, is left to Jackson.
+ * </p>
+ */
+public class DtoJsonHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    public DtoJsonHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(@NonNull Class<?> clazz) {
+        return clazz == EncodedJson.class || JsonResponseWriter.supports(clazz);
+    }
+
+    @Override
+    public boolean canRead(@NonNull Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    @NonNull
+    protected Object readInternal(@NonNull Class<?> clazz, @NonNull HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Response bodies only", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(@NonNull Object body, MediaType contentType) {
+        return body instanceof EncodedJson encoded ? (long) encoded.length() : null;
+    }
+
+    @Override
+    protected void writeInternal(@NonNull Object body, @NonNull HttpOutputMessage outputMessage) throws IOException {
+        if (body instanceof EncodedJson encoded) {
+            encoded.writeTo(outputMessage.getBody());
+        } else {
+            JsonResponseWriter.write(body, outputMessage.getBody());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.otorael.Capture_info.Configuration;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * <p>
+ *     Times the first API request for {@link StartupTimingReporter}, outermost so security and rate limiting
+ *     are included. Once that request is recorded this filter is skipped, so later requests pay one volatile
+ *     read. Register and login finish asynchronously; their timing ends when the async response completes.
+ * </p>
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class FirstRequestTimingFilter extends OncePerRequestFilter {
+
+    private final StartupTimingReporter startupTimingReporter;
+
+    public FirstRequestTimingFilter(StartupTimingReporter startupTimingReporter) {
+        this.startupTimingReporter = startupTimingReporter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !startupTimingReporter.awaitingFirstRequest()
+                || !StartupTimingReporter.isApiPath(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        long started = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        completed(request, response, started);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                completed(request, response, started);
+            }
+        }
+    }
+
+    private void completed(HttpServletRequest request, HttpServletResponse response, long started) {
+        startupTimingReporter.firstRequestCompleted(
+                request.getMethod(),
+                request.getRequestURI(),
+                response.getStatus(),
+                System.nanoTime() - started
+        );
+    }
+}
@@ -0,0 +1,31 @@
+package com.otorael.Capture_info.Configuration;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * <p>
+ *     Lets a start skip the migration while keeping Flyway configured. An AOT-processed build fixes at build time
+ *     whether Flyway runs, so {@code spring.flyway.enabled} cannot turn it off there; the CDS training run, which
+ *     has no database, sets {@code capture.flyway.migrate-on-startup} to false instead.
+ * </p>
+ */
+@Configuration
+@ConditionalOnClass(Flyway.class)
+public class FlywayConfiguration {
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(
+            @Value("${capture.flyway.migrate-on-startup:true}") boolean migrateOnStartup
+    ) {
+        return flyway -> {
+            if (migrateOnStartup) {
+                flyway.migrate();
+            }
+        };
+    }
+}
@@ -0,0 +1,78 @@
+package com.otorael.Capture_info.Configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ *     Replaces the single datasource with primary/replica routing when {@code replica.urls} is set.
+ *     The primary is still configured from {@code spring.datasource}; each replica gets its own small,
+ *     read-only Hikari pool that does not hold up startup if the replica is down. The datasource everything
+ *     else sees is the routing datasource behind a lazy proxy, see {@link ReplicaRoutingDataSource}.
+ * </p>
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "replica", name = "urls")
+public class ReplicaRoutingConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            @Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+            DataSourceProperties dataSourceProperties,
+            @Value("${replica.urls}") List<String> urls,
+            @Value("${replica.username:}") String username,
+            @Value("${replica.password:}") String password,
+            @Value("${replica.pool-size:8}") int poolSize,
+            @Value("${replica.connection-timeout-ms:1000}") long connectionTimeoutMillis,
+            @Value("${replica.max-lag-ms:5000}") long maxLagMillis,
+            @Value("${replica.lag-query:}") String lagQuery
+    ) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(urls.get(i).trim())
+                    .username(username.isEmpty() ? dataSourceProperties.determineUsername() : username)
+                    .password(username.isEmpty() ? dataSourceProperties.determinePassword() : password)
+                    .build();
+            /* same driver tuning as the primary, e.g. cursor fetch for the export that reads from here */
+            replica.setDataSourceProperties(primaryDataSource.getDataSourceProperties());
+            replica.setPoolName("replica-" + i);
+            replica.setMaximumPoolSize(poolSize);
+            replica.setReadOnly(true);
+            /* fail over quickly instead of queueing reads behind a dead replica */
+            replica.setConnectionTimeout(connectionTimeoutMillis);
+            replica.setInitializationFailTimeout(-1);
+            replicas.put(replica.getPoolName(), replica);
+        }
+
+        int probeTimeoutSeconds = (int) Math.max(1, connectionTimeoutMillis / 1000);
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, maxLagMillis, lagQuery, probeTimeoutSeconds);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,261 @@
+package com.otorael.Capture_info.Configuration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Sends work in read-only transactions to a healthy replica and everything else to the primary.
+ * <p>
+ *     The decision is made when a connection is first needed, so this must sit behind a
+ *     {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: by then the transaction
+ *     manager has published whether the transaction is read-only. Replicas are picked round robin among the
+ *     healthy ones; with none healthy, reads go to the primary.
+ * </p>
+ * <p>
+ *     Every {@code replica.check-interval-ms} each replica is probed. A replica is taken out of rotation when
+ *     it cannot be reached or is more than {@code replica.max-lag-ms} behind, and put back once it catches up.
+ *     On MySQL the lag is {@code Seconds_Behind_Source} from {@code SHOW REPLICA STATUS}; {@code replica.lag-query}
+ *     overrides that with any query returning the lag in seconds. If a replica fails between probes, the
+ *     request that hit the failure falls back to the primary and the replica is marked down straight away.
+ * </p>
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    /**
+     * One replica and what the last probe found.
+     */
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy;
+        private volatile long lagMillis = -1;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    private final DataSource primary;
+    private final Map<String, Replica> replicas = new LinkedHashMap<>();
+    private final long maxLagMillis;
+    private final String lagQuery;
+    private final int probeTimeoutSeconds;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    /** serialises rebuilds of the rotation, routing only reads the published list */
+    private final ReentrantLock rotationLock = new ReentrantLock();
+
+    private volatile List<Replica> healthy = List.of();
+
+    /**
+     *
+     * @param primary takes all writes and any read when no replica is healthy
+     * @param replicas replica data sources by name, e.g. replica-0
+     * @param maxLagMillis how far behind a replica may fall before it stops serving reads
+     * @param lagQuery query returning the lag in seconds, null to use the database's own status
+     * @param probeTimeoutSeconds how long a probe may take before the replica counts as down
+     */
+    public ReplicaRoutingDataSource(
+            DataSource primary,
+            Map<String, DataSource> replicas,
+            long maxLagMillis,
+            String lagQuery,
+            int probeTimeoutSeconds
+    ) {
+        this.primary = primary;
+        this.maxLagMillis = maxLagMillis;
+        this.lagQuery = lagQuery == null || lagQuery.isBlank() ? null : lagQuery;
+        this.probeTimeoutSeconds = probeTimeoutSeconds;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach((name, dataSource) -> {
+            this.replicas.put(name, new Replica(name, dataSource));
+            targets.put(name, dataSource);
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    /**
+     * Runs work against the primary even inside a read-only transaction, for reads that must see the
+     * latest writes. Only affects connections opened inside the call.
+     *
+     * @param work the reads to run
+     * @return what the work returned
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = PRIMARY_ONLY.get();
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_ONLY.remove();
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (PRIMARY_ONLY.get() != null || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        List<Replica> candidates = healthy;
+        if (candidates.isEmpty()) {
+            return PRIMARY;
+        }
+        return candidates.get(Math.floorMod(nextReplica.getAndIncrement(), candidates.size())).name;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = replicas.get(determineCurrentLookupKey());
+        if (replica == null) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.dataSource.getConnection();
+        } catch (SQLException e) {
+            markDown(replica, e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    /**
+     * Probes every replica and updates the rotation.
+     */
+    @Scheduled(fixedDelayString = "${replica.check-interval-ms:5000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas.values()) {
+            long lag;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                lag = lagMillis(connection);
+            } catch (SQLException e) {
+                markDown(replica, e.getMessage());
+                continue;
+            }
+
+            replica.lagMillis = lag;
+            if (lag < 0 || lag > maxLagMillis) {
+                markDown(replica, lag < 0 ? "replication is not running" : "lagging " + lag + " ms");
+            } else if (!replica.healthy) {
+                replica.healthy = true;
+                refreshRotation();
+                log.info("Replica {} back in rotation, lag {} ms", replica.name, lag);
+            }
+        }
+    }
+
+    /**
+     *
+     * @return replicas currently serving reads
+     */
+    public int healthyReplicas() {
+        return healthy.size();
+    }
+
+    public int replicaCount() {
+        return replicas.size();
+    }
+
+    /**
+     *
+     * @return the largest lag any reachable replica reported in its last probe, -1 if none did
+     */
+    public long maxObservedLagMillis() {
+        long max = -1;
+        for (Replica replica : replicas.values()) {
+            max = Math.max(max, replica.lagMillis);
+        }
+        return max;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (Replica replica : replicas.values()) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    /**
+     *
+     * @return the lag in milliseconds, or -1 if the replica reports that it is not replicating
+     */
+    private long lagMillis(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(probeTimeoutSeconds);
+
+            if (lagQuery != null) {
+                try (ResultSet result = statement.executeQuery(lagQuery)) {
+                    return result.next() ? seconds(result.getObject(1)) : -1;
+                }
+            }
+
+            String product = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT);
+            if (!product.contains("mysql")) {
+                /* no replication status to read, reachable is as much as we can tell */
+                return connection.isValid(probeTimeoutSeconds) ? 0 : -1;
+            }
+            try (ResultSet result = statement.executeQuery("SHOW REPLICA STATUS")) {
+                /* no row means the server is not a replica at all, e.g. a stand-in copy */
+                return result.next() ? seconds(result.getObject("Seconds_Behind_Source")) : 0;
+            }
+        }
+    }
+
+    private static long seconds(Object value) {
+        return value instanceof Number number ? number.longValue() * 1000 : -1;
+    }
+
+    private void markDown(Replica replica, String reason) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            refreshRotation();
+            log.warn("Replica {} taken out of rotation - {}", replica.name, reason);
+        }
+    }
+
+    private void refreshRotation() {
+        rotationLock.lock();
+        try {
+            List<Replica> serving = new ArrayList<>();
+            for (Replica replica : replicas.values()) {
+                if (replica.healthy) {
+                    serving.add(replica);
+                }
+            }
+            healthy = List.copyOf(serving);
+        } finally {
+            rotationLock.unlock();
+        }
+    }
+}
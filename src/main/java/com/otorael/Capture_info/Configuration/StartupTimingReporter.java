@@ -0,0 +1,119 @@
+package com.otorael.Capture_info.Configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aot.AotDetector;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.NativeDetector;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Measures how long a new instance takes to become useful, which is what limits scale-out during a spike.
+ * <p>
+ *     Records when the application was ready and when the first API request was answered, both counted from
+ *     JVM start so class loading before {@code main} is included, and how long that first request took on a
+ *     cold JIT. The numbers are logged once and kept as the {@code capture.startup.ready},
+ *     {@code capture.startup.first.response} and {@code capture.startup.first.request} gauges, tagged with the
+ *     startup {@code mode}: {@code native}, {@code aot}, {@code jvm}, plus {@code +cds} when a class-data
+ *     archive was given, so dashboards can compare the fast-startup builds against the plain jar.
+ * </p>
+ * <p>
+ *     Actuator requests, e.g. readiness probes, do not count as the first request. The request filters call
+ *     {@link #awaitingFirstRequest()} and only measure while it is true.
+ * </p>
+ */
+@Component
+public class StartupTimingReporter {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimingReporter.class);
+
+    private final String mode = mode();
+    private final AtomicBoolean firstRequestRecorded = new AtomicBoolean();
+
+    private volatile boolean awaitingFirstRequest = true;
+    private volatile double readyMillis = Double.NaN;
+    private volatile double firstResponseMillis = Double.NaN;
+    private volatile double firstRequestMillis = Double.NaN;
+
+    public StartupTimingReporter(MeterRegistry meterRegistry) {
+        TimeGauge.builder("capture.startup.ready", this, TimeUnit.MILLISECONDS, reporter -> reporter.readyMillis)
+                .description("Time from JVM start until the application was ready")
+                .tag("mode", mode)
+                .register(meterRegistry);
+        TimeGauge.builder("capture.startup.first.response", this, TimeUnit.MILLISECONDS,
+                        reporter -> reporter.firstResponseMillis)
+                .description("Time from JVM start until the first API request was answered")
+                .tag("mode", mode)
+                .register(meterRegistry);
+        TimeGauge.builder("capture.startup.first.request", this, TimeUnit.MILLISECONDS,
+                        reporter -> reporter.firstRequestMillis)
+                .description("Latency of the first API request")
+                .tag("mode", mode)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        readyMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        log.info("Startup mode {} - ready {} ms after JVM start", mode, (long) readyMillis);
+    }
+
+    /**
+     *
+     * @return true until the first API request has been measured
+     */
+    public boolean awaitingFirstRequest() {
+        return awaitingFirstRequest;
+    }
+
+    /**
+     * Records the first API request, later calls are ignored.
+     *
+     * @param method the HTTP method
+     * @param path the request path
+     * @param status the response status
+     * @param elapsedNanos how long the request took
+     */
+    public void firstRequestCompleted(String method, String path, int status, long elapsedNanos) {
+        if (!firstRequestRecorded.compareAndSet(false, true)) {
+            return;
+        }
+        awaitingFirstRequest = false;
+        firstResponseMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        firstRequestMillis = elapsedNanos / 1_000_000.0;
+        log.info("Startup mode {} - first request {} {} ({}) took {} ms, answered {} ms after JVM start",
+                mode,
+                method,
+                path,
+                status,
+                (long) firstRequestMillis,
+                (long) firstResponseMillis
+        );
+    }
+
+    /**
+     *
+     * @param path the request path
+     * @return true if requests to the path count as API requests
+     */
+    public static boolean isApiPath(String path) {
+        return !path.startsWith("/actuator");
+    }
+
+    private static String mode() {
+        if (NativeDetector.inNativeImage()) {
+            return "native";
+        }
+        String mode = AotDetector.useGeneratedArtifacts() ? "aot" : "jvm";
+        boolean archive = ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+                .anyMatch(argument -> argument.startsWith("-XX:SharedArchiveFile"));
+        return archive ? mode + "+cds" : mode;
+    }
+}
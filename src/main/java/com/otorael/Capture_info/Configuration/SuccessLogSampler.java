@@ -0,0 +1,77 @@
+package com.otorael.Capture_info.Configuration;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logback turbo filter that keeps only one in N success-path log events per logger.
+ * <p>
+ *     Events logged with the {@link #SUCCESS} marker are routine ("login successful" and the like); at high
+ *     request rates they are most of the log volume and carry little information each. Turbo filters run
+ *     before the message is formatted or an event object is built, so a dropped event costs a map lookup
+ *     and an increment. Warnings, errors and unmarked events always pass.
+ * </p>
+ * <p>
+ *     Configured from {@code logback-spring.xml}: {@code sampleEvery} applies to every logger and
+ *     {@code loggerRates} overrides it per logger, e.g. {@code com.example.Foo=10,com.example.Bar=1}.
+ * </p>
+ */
+public class SuccessLogSampler extends TurboFilter {
+
+    /**
+     * Marker for routine success-path events that may be sampled.
+     */
+    public static final Marker SUCCESS = MarkerFactory.getMarker("SUCCESS");
+
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+    private final Map<String, Integer> rates = new ConcurrentHashMap<>();
+    private int sampleEvery = 1;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (marker == null || level.isGreaterOrEqual(Level.WARN) || !marker.contains(SUCCESS)) {
+            return FilterReply.NEUTRAL;
+        }
+
+        int every = rates.getOrDefault(logger.getName(), sampleEvery);
+        if (every <= 1) {
+            return FilterReply.NEUTRAL;
+        }
+
+        long seen = counters.computeIfAbsent(logger.getName(), name -> new AtomicLong()).getAndIncrement();
+        return seen % every == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    /**
+     *
+     * @param sampleEvery keep one success event in this many, 1 keeps all of them
+     */
+    public void setSampleEvery(int sampleEvery) {
+        this.sampleEvery = sampleEvery;
+    }
+
+    /**
+     *
+     * @param loggerRates comma separated logger=N pairs overriding sampleEvery
+     */
+    public void setLoggerRates(String loggerRates) {
+        rates.clear();
+        if (loggerRates == null || loggerRates.isBlank()) {
+            return;
+        }
+        for (String pair : loggerRates.split(",")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                rates.put(pair.substring(0, equals).trim(), Integer.parseInt(pair.substring(equals + 1).trim()));
+            }
+        }
+    }
+}
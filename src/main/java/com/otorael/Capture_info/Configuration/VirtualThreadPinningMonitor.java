@@ -0,0 +1,72 @@
+package com.otorael.Capture_info.Configuration;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Watches for virtual threads pinned to their carrier while running virtual-thread mode.
+ * <p>
+ *     A virtual thread that blocks inside a {@code synchronized} block or a native frame keeps its carrier
+ *     thread busy, which quietly turns the virtual-thread pool back into a small platform pool.
+ *     This subscribes to the JFR {@code jdk.VirtualThreadPinned} event and logs the top frame of every
+ *     pin longer than {@code capture.virtual-threads.pinned-threshold-ms}, so a regression shows up in the logs
+ *     instead of only in p99 latency.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private final Duration threshold;
+    private final LongAdder pinnedEvents = new LongAdder();
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(
+            @Value("${capture.virtual-threads.pinned-threshold-ms:20}") long thresholdMillis
+    ) {
+        this.threshold = Duration.ofMillis(thresholdMillis);
+    }
+
+    @PostConstruct
+    void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+        recordingStream.startAsync();
+        log.info("Virtual-thread mode enabled, reporting pins longer than {} ms", threshold.toMillis());
+    }
+
+    @PreDestroy
+    void stop() {
+        recordingStream.close();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedEvents.increment();
+
+        RecordedFrame top = event.getStackTrace() == null || event.getStackTrace().getFrames().isEmpty()
+                ? null
+                : event.getStackTrace().getFrames().getFirst();
+        log.warn("Virtual thread pinned for {} ms at {}",
+                event.getDuration().toMillis(),
+                top == null ? "unknown" : top.getMethod().getType().getName() + "." + top.getMethod().getName()
+        );
+    }
+
+    public long pinnedEvents() {
+        return pinnedEvents.sum();
+    }
+}
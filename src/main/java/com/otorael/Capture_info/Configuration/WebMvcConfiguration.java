@@ -0,0 +1,21 @@
+package com.otorael.Capture_info.Configuration;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class WebMvcConfiguration implements WebMvcConfigurer {
+
+    /**
+     * The DTO writers go first so they are chosen over Jackson for the types they handle.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new DtoJsonHttpMessageConverter());
+    }
+}
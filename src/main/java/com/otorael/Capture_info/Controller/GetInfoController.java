@@ -1,22 +1,93 @@
 package com.otorael.Capture_info.Controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.otorael.Capture_info.Model.CaptureProtocol;
+import com.otorael.Capture_info.Model.InformationModel;
+import com.otorael.Capture_info.Network.ClientAddressResolver;
+import com.otorael.Capture_info.ResponseDTO.CapturePageDTO;
+import com.otorael.Capture_info.ResponseDTO.CaptureRecordDTO;
 import com.otorael.Capture_info.ResponseDTO.InformationResponseDTO;
+import com.otorael.Capture_info.ResponseDTO.EncodedJson;
+import com.otorael.Capture_info.ResponseDTO.TrafficCountDTO;
+import com.otorael.Capture_info.ResponseDTO.TrafficDTO;
+import com.otorael.Capture_info.Service.CaptureWriter;
+import com.otorael.Capture_info.Service.Information;
+import com.otorael.Capture_info.Service.TrafficAggregator;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataAccessException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.List;
+
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RestController
 @RequestMapping("/api/v1/")
 public class GetInfoController {
 
+    private static final Logger log = LoggerFactory.getLogger(GetInfoController.class);
+
+    private static final EncodedJson NO_CAPTURE_FILTER = EncodedJson.message("failure", "Provide ip, protocol or a from/to time range");
+    private static final EncodedJson INVALID_WINDOW_OR_LIMIT = EncodedJson.message("failure", "windowSeconds and limit must be positive");
+    private static final EncodedJson INVALID_WINDOW = EncodedJson.message("failure", "windowSeconds must be positive");
+    private static final EncodedJson EXPORT_FAILED = EncodedJson.message("failure", "Captures could not be read, try again later");
+
+    private final CaptureWriter captureWriter;
+    private final Information information;
+    private final TrafficAggregator trafficAggregator;
+    private final ClientAddressResolver clientAddressResolver;
+    private final ObjectWriter captureRecordWriter;
+
+    public GetInfoController(
+            CaptureWriter captureWriter,
+            Information information,
+            TrafficAggregator trafficAggregator,
+            ClientAddressResolver clientAddressResolver,
+            ObjectMapper objectMapper
+    ) {
+        this.captureWriter = captureWriter;
+        this.information = information;
+        this.trafficAggregator = trafficAggregator;
+        this.clientAddressResolver = clientAddressResolver;
+        /* the container flushes and closes the response, so a failure before the first buffer fills can still be a 500 */
+        this.captureRecordWriter = objectMapper.writerFor(CaptureRecordDTO.class)
+                .withRootValueSeparator("\n")
+                .withoutFeatures(JsonGenerator.Feature.AUTO_CLOSE_TARGET, JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+    }
+
     @RequestMapping(value = "/public/get-info", method = RequestMethod.GET)
     public ResponseEntity<?> getIpAddress(HttpServletRequest request){
 
-        String Ipaddress = request.getHeader("X-Forwarded-For");
-        String Protocol = request.getProtocol();
+        /* forwarded headers are only believed from trusted proxies */
+        ClientAddressResolver.ClientAddress client = clientAddressResolver.resolve(request);
+        String Ipaddress = client.text();
+        String Protocol = client.protocol();
+
+        /* queue the hit for the background writer, never waits on the database */
+        captureWriter.submit(new InformationModel(
+                null,
+                client.address(),
+                CaptureProtocol.of(Protocol),
+                Instant.now()
+        ));
+        trafficAggregator.record(Ipaddress, Protocol);
 
         InformationResponseDTO outPut = new InformationResponseDTO(
                 "Success",
@@ -26,4 +97,165 @@ public class GetInfoController {
         );
         return ResponseEntity.status(HttpStatus.OK).body(outPut);
     }
+
+    /**
+     * Keyset paginated lookup of captured information by exactly one of ip, protocol or time range.
+     *
+     * @param ip client address to look up, in any IPv4 or IPv6 notation
+     * @param protocol X-Forwarded-Proto value to look up
+     * @param from inclusive start of a time range
+     * @param to exclusive end of a time range
+     * @param afterId nextAfterId from the previous page
+     * @param afterCapturedAt nextAfterCapturedAt from the previous page of a time range query
+     * @param limit page size, capped by the service
+     * @return CapturePageDTO with status 200 (OK) or MessageDTO with status 400 (BAD_REQUEST)
+     */
+    @RequestMapping(value = "/protected/captures", method = RequestMethod.GET)
+    public ResponseEntity<?> getCaptures(
+            @RequestParam(required = false) String ip,
+            @RequestParam(required = false) String protocol,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Instant afterCapturedAt,
+            @RequestParam(defaultValue = "100") int limit
+    ){
+        List<InformationModel> captures;
+        if (ip != null) {
+            captures = information.findByIpAddress(ip, afterId, limit);
+        } else if (protocol != null) {
+            captures = information.findByProtocol(protocol, afterId, limit);
+        } else if (from != null && to != null) {
+            captures = information.findByCapturedAt(from, to, afterCapturedAt, afterId, limit);
+        } else {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(NO_CAPTURE_FILTER);
+        }
+
+        /* a short page is the last one, there is nothing to continue after */
+        InformationModel last = captures.size() < information.pageSize(limit) ? null : captures.get(captures.size() - 1);
+        CapturePageDTO outPut = new CapturePageDTO(
+                "Success",
+                captures.stream().map(CaptureRecordDTO::from).toList(),
+                last != null ? last.getId() : null,
+                last != null ? last.getCapturedAt() : null,
+                "Captured information returned successfully"
+        );
+        return ResponseEntity.status(HttpStatus.OK).body(outPut);
+    }
+
+    /**
+     * Streams every capture in the time range as newline delimited JSON, one row in memory at a time.
+     * <p>
+     *     A failure before the first rows have been flushed is answered with 500, see {@link #exportFailed}.
+     * </p>
+     *
+     * @param from inclusive start of the range
+     * @param to exclusive end of the range
+     * @return the NDJSON body written as rows are read from the database
+     */
+    @RequestMapping(value = "/protected/captures/export", method = RequestMethod.GET)
+    public ResponseEntity<StreamingResponseBody> exportCaptures(
+            @RequestParam Instant from,
+            @RequestParam Instant to
+    ){
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter rows = captureRecordWriter.writeValues(outputStream)) {
+                information.streamByCapturedAt(from, to, capture -> {
+                    try {
+                        rows.write(CaptureRecordDTO.from(capture));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    /**
+     * The export's rows are read after the handler has returned, so a database failure arrives here on the
+     * async dispatch. Once rows have gone out the 200 is already on the wire: the failure is rethrown so the
+     * container aborts the connection and the client sees a broken transfer instead of a complete-looking body.
+     *
+     * @param e the failure raised while reading captures
+     * @param response the response the rows were being written to
+     * @return MessageDTO with status 500 (INTERNAL_SERVER_ERROR)
+     */
+    @ExceptionHandler(DataAccessException.class)
+    public ResponseEntity<?> exportFailed(DataAccessException e, HttpServletResponse response) {
+        if (response.isCommitted()) {
+            throw e;
+        }
+        log.error("Reading captures failed: {}", e.getMessage());
+        /* the export has already set application/x-ndjson */
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(EXPORT_FAILED);
+    }
+
+    /**
+     * Busiest client addresses over a recent window, answered from memory without touching the database.
+     * Counts are estimates that may run slightly high, look an address up in /protected/captures for exact rows.
+     *
+     * @param windowSeconds how far back to look, capped by traffic.slots * traffic.slot-ms
+     * @param limit how many addresses to return, capped by traffic.top-k
+     * @return TrafficDTO with status 200 (OK) or MessageDTO with status 400 (BAD_REQUEST)
+     */
+    @RequestMapping(value = "/protected/traffic/top", method = RequestMethod.GET)
+    public ResponseEntity<?> getTopTalkers(
+            @RequestParam(defaultValue = "60") long windowSeconds,
+            @RequestParam(defaultValue = "10") int limit
+    ){
+        if (windowSeconds <= 0 || limit <= 0) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(INVALID_WINDOW_OR_LIMIT);
+        }
+
+        long windowMillis = windowMillis(windowSeconds);
+        List<TrafficAggregator.Count> talkers = trafficAggregator.topTalkers(
+                windowMillis,
+                Math.min(limit, trafficAggregator.maxTalkers())
+        );
+        return ResponseEntity.status(HttpStatus.OK).body(traffic(windowMillis, talkers, "Top talkers returned successfully"));
+    }
+
+    /**
+     * Capture rate over a recent window, overall and per protocol.
+     *
+     * @param windowSeconds how far back to look, capped by traffic.slots * traffic.slot-ms
+     * @return TrafficDTO with status 200 (OK) or MessageDTO with status 400 (BAD_REQUEST)
+     */
+    @RequestMapping(value = "/protected/traffic/rates", method = RequestMethod.GET)
+    public ResponseEntity<?> getTrafficRates(@RequestParam(defaultValue = "60") long windowSeconds){
+        if (windowSeconds <= 0) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(INVALID_WINDOW);
+        }
+
+        long windowMillis = windowMillis(windowSeconds);
+        List<TrafficAggregator.Count> protocols = trafficAggregator.protocols(windowMillis);
+        return ResponseEntity.status(HttpStatus.OK).body(traffic(windowMillis, protocols, "Traffic rates returned successfully"));
+    }
+
+    /* clamped before multiplying, a huge windowSeconds would otherwise wrap to a negative window */
+    private long windowMillis(long windowSeconds) {
+        long maxWindowMillis = trafficAggregator.maxWindowMillis();
+        return windowSeconds >= maxWindowMillis / 1000 ? maxWindowMillis : windowSeconds * 1000;
+    }
+
+    private TrafficDTO traffic(long windowMillis, List<TrafficAggregator.Count> counts, String message) {
+        double coveredSeconds = Math.min(windowMillis, trafficAggregator.coveredMillis(windowMillis)) / 1000.0;
+        long totalHits = trafficAggregator.totalHits(windowMillis);
+
+        return new TrafficDTO(
+                "Success",
+                Math.round(coveredSeconds),
+                totalHits,
+                totalHits / coveredSeconds,
+                counts.stream()
+                        .map(count -> new TrafficCountDTO(count.key(), count.hits(), count.hits() / coveredSeconds))
+                        .toList(),
+                message
+        );
+    }
 }
@@ -1,4 +1,110 @@
 package com.otorael.Capture_info.Controller;
 
+import com.otorael.Capture_info.ResponseDTO.EncodedJson;
+import com.otorael.Capture_info.ResponseDTO.MessageDTO;
+import com.otorael.Capture_info.ResponseDTO.PinCheckDTO;
+import com.otorael.Capture_info.Service.PinCodeService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * REST controller for checking how guessable a 4 digit PIN is.
+ */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RestController
+@RequestMapping("/api/v1/")
 public class PinCodeController {
+
+    /**
+     * Upper bound on the PINs accepted by the bulk JSON endpoint.
+     */
+    private static final int MAX_BULK_PINS = 10_000;
+
+    private static final EncodedJson NOT_A_PIN = EncodedJson.message("failure", "A PIN must be exactly 4 digits");
+
+    private final PinCodeService pinCodeService;
+
+    public PinCodeController(PinCodeService pinCodeService) {
+        this.pinCodeService = pinCodeService;
+    }
+
+    /**
+     *
+     * @param pin the PIN to check
+     * @return PinCheckDTO with status 200 (OK) or MessageDTO with status 400 (BAD_REQUEST) if not 4 digits
+     */
+    @RequestMapping(value = "/public/pin-check", method = RequestMethod.GET)
+    public ResponseEntity<?> checkPin(@RequestParam String pin) {
+        int rank = pinCodeService.rank(pin);
+
+        if (rank == PinCodeService.INVALID) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(NOT_A_PIN);
+        }
+        return ResponseEntity.status(HttpStatus.OK).body(toDto(pin, rank));
+    }
+
+    /**
+     *
+     * @param pins the PINs to check
+     * @return one PinCheckDTO per PIN in request order with status 200 (OK),
+     *         or MessageDTO with status 400 (BAD_REQUEST) if any PIN is not 4 digits or there are too many
+     */
+    @RequestMapping(value = "/public/pin-check/bulk", method = RequestMethod.POST)
+    public ResponseEntity<?> checkPins(@RequestBody List<String> pins) {
+        if (pins.size() > MAX_BULK_PINS) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new MessageDTO(
+                    "failure",
+                    "At most " + MAX_BULK_PINS + " PINs per request"
+            ));
+        }
+
+        List<PinCheckDTO> results = new ArrayList<>(pins.size());
+        for (String pin : pins) {
+            int rank = pinCodeService.rank(pin);
+            if (rank == PinCodeService.INVALID) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new MessageDTO(
+                        "failure",
+                        "A PIN must be exactly 4 digits: " + pin
+                ));
+            }
+            results.add(toDto(pin, rank));
+        }
+        return ResponseEntity.status(HttpStatus.OK).body(results);
+    }
+
+    /**
+     * Streams results for newline delimited or NDJSON input without buffering either body.
+     * Each non-blank input line produces one NDJSON result line, in input order.
+     *
+     * @param request carries the PINs, one per line
+     * @param response receives one NDJSON result per line as the input is read
+     * @throws IOException if the client disconnects mid stream
+     */
+    @RequestMapping(
+            value = "/public/pin-check/stream",
+            method = RequestMethod.POST,
+            consumes = {MediaType.TEXT_PLAIN_VALUE, "application/x-ndjson"}
+    )
+    public void checkPinStream(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType("application/x-ndjson");
+        pinCodeService.scoreStream(request.getInputStream(), response.getOutputStream());
+    }
+
+    private PinCheckDTO toDto(String pin, int rank) {
+        return new PinCheckDTO(pin, rank, pinCodeService.isWeak(rank) ? "weak" : "strong");
+    }
 }
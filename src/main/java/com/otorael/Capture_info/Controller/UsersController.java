@@ -1,6 +1,6 @@
 /**
  * Controller class responsible for handling user-related HTTP requests in the application.
- * Provides endpoints for user registration and authentication management.
+ * Provides endpoints for user registration, authentication and token refresh.
  *
  * @author otorael
  * @version 1.0
@@ -8,13 +8,21 @@
  */
 package com.otorael.Capture_info.Controller;
 
-import com.otorael.Capture_info.Authentication.JwtUtility;
+import com.otorael.Capture_info.Authentication.HashingCapacityExceededException;
+import com.otorael.Capture_info.Authentication.LoginRateLimiter;
+import com.otorael.Capture_info.Authentication.RefreshTokenService;
+import com.otorael.Capture_info.Configuration.CaptureMetrics;
 import com.otorael.Capture_info.Model.UserModel;
+import com.otorael.Capture_info.RequestDTO.RefreshTokenRequestDTO;
+import com.otorael.Capture_info.ResponseDTO.EncodedJson;
 import com.otorael.Capture_info.ResponseDTO.MessageDTO;
+import com.otorael.Capture_info.ResponseDTO.TokenDTO;
 import com.otorael.Capture_info.ResponseDTO.UserInfoDTO;
 import com.otorael.Capture_info.Service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -22,10 +30,16 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static com.otorael.Capture_info.Configuration.SuccessLogSampler.SUCCESS;
+
 /**
  * REST controller for managing user operations.
  * Handles registration and login endpoints under the /api/v1/ base path.
  */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RestController
 @RequestMapping("/api/v1/")
 public class UsersController {
@@ -36,52 +50,97 @@ public class UsersController {
      */
     private static final Logger log = LoggerFactory.getLogger(UsersController.class);
 
+    /**
+     * Failure bodies that never change, serialized once.
+     */
+    private static final EncodedJson EMAIL_TAKEN = EncodedJson.message("failure", "Email is taken");
+    private static final EncodedJson EMAIL_AND_PASSWORD_REQUIRED = EncodedJson.message("failure", "Email and password are required");
+    private static final EncodedJson INVALID_CREDENTIALS = EncodedJson.message("failure", "Invalid credentials, try again");
+    private static final EncodedJson REFRESH_REJECTED = EncodedJson.message("failure", "Refresh token not valid, log in again");
+    private static final EncodedJson TOO_MANY_ATTEMPTS = EncodedJson.message("failure", "Too many attempts, try again later");
+    private static final EncodedJson SERVER_BUSY = EncodedJson.message("failure", "Server busy, try again shortly");
+
     /**
      * Service layer for handling user business logic.
      */
     private final UserService userService;
 
     /**
-     * Utility for JWT token generation and management.
+     * Issues access/refresh token pairs and rotates refresh tokens.
      */
-    private final JwtUtility jwtUtility;
+    private final RefreshTokenService refreshTokenService;
+
+    /**
+     * Per-email attempt budget, checked before any database or hashing work.
+     */
+    private final LoginRateLimiter loginRateLimiter;
+
+    /**
+     * Auth outcome counters.
+     */
+    private final CaptureMetrics captureMetrics;
 
     /**
      * Constructor for UsersController.
      * Initializes required services and utilities.
      *
      * @param userService Service for handling user operations
-     * @param jwtUtility Utility for JWT token operations
+     * @param refreshTokenService Service for issuing and rotating tokens
+     * @param loginRateLimiter Per-email attempt budget
+     * @param captureMetrics Auth outcome counters
      */
-    public UsersController(UserService userService, JwtUtility jwtUtility) {
+    public UsersController(
+            UserService userService,
+            RefreshTokenService refreshTokenService,
+            LoginRateLimiter loginRateLimiter,
+            CaptureMetrics captureMetrics
+    ) {
         this.userService = userService;
-        this.jwtUtility = jwtUtility;
-        log.info("UsersController initialized with userService and jwtUtility");
+        this.refreshTokenService = refreshTokenService;
+        this.loginRateLimiter = loginRateLimiter;
+        this.captureMetrics = captureMetrics;
+        log.info("UsersController initialized with userService and refreshTokenService");
     }
 
     /**
      * Handles user registration requests.
      * Creates a new user account and generates a JWT token upon successful registration.
+     * Password hashing runs on the hashing pool, so the request thread is released while it runs.
      *
      * @param userModel The user data model containing registration information
-     * @return ResponseEntity<?> with either:
+     * @return CompletableFuture<ResponseEntity<?>> with either:
      *         - UserInfoDTO with status 201 (CREATED) if registration is successful
+     *         - MessageDTO with status 400 (BAD_REQUEST) if the email or password is missing
      *         - MessageDTO with status 409 (CONFLICT) if email is already taken
+     *         - MessageDTO with status 429 (TOO_MANY_REQUESTS) if the email has had too many attempts
+     *         - MessageDTO with status 503 (SERVICE_UNAVAILABLE) if the hashing queue is full
      *         - MessageDTO with status 500 (INTERNAL_SERVER_ERROR) if an unexpected error occurs
      *
      */
     @RequestMapping(value = "/public/register", method = RequestMethod.POST)
-    public ResponseEntity<?> register(@RequestBody UserModel userModel) {
+    public CompletableFuture<ResponseEntity<?>> register(@RequestBody UserModel userModel) {
         String userEmail = userModel.getEmail();
-        log.info("Starting registration process for user - Email: {}", userEmail);
+        log.info(SUCCESS, "Starting registration process for user - Email: {}", userEmail);
 
-        try {
-            /* Attempt to register the user */
-            UserModel registeredUser = userService.registerUser(userModel);
+        /* Reject what the database would otherwise refuse for a reason other than a taken email */
+        if (userEmail == null || userEmail.isBlank() || userModel.getPassword() == null || userModel.getPassword().isBlank()) {
+            captureMetrics.authOutcome("register", "invalid");
+            log.warn("Registration failed - Email or password missing");
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(HttpStatus.BAD_REQUEST).body(EMAIL_AND_PASSWORD_REQUIRED));
+        }
+
+        long retryAfter = loginRateLimiter.tryAcquireEmail(userEmail);
+        if (retryAfter > 0) {
+            return CompletableFuture.completedFuture(throttled("register", userEmail, retryAfter));
+        }
+
+        /* Attempt to register the user */
+        return userService.registerUser(userModel).<ResponseEntity<?>>thenApply(registeredUser -> {
 
             if (registeredUser != null) {
                 /* Generate JWT token for successful registration */
-                String token = jwtUtility.TokenGeneration(registeredUser.getEmail());
+                RefreshTokenService.TokenPair tokens = refreshTokenService.issue(registeredUser.getEmail());
                 log.debug("JWT token generated for new user: {}", userEmail);
 
                 /* Create success response */
@@ -90,11 +149,13 @@ public class UsersController {
                         registeredUser.getFirstName(),
                         registeredUser.getLastName(),
                         registeredUser.getEmail(),
-                        token,
+                        tokens.accessToken(),
+                        tokens.refreshToken(),
                         "The User was registered successfully"
                 );
 
-                log.info("User registration successful - Email: {}, Name: {} {}",
+                captureMetrics.authOutcome("register", "success");
+                log.info(SUCCESS, "User registration successful - Email: {}, Name: {} {}",
                         userEmail,
                         registeredUser.getFirstName(),
                         registeredUser.getLastName()
@@ -103,49 +164,44 @@ public class UsersController {
 
             } else {
                 /* Handle case where email is already taken */
+                captureMetrics.authOutcome("register", "conflict");
                 log.warn("Registration failed - Duplicate email detected: {}", userEmail);
 
-                MessageDTO responseDto = new MessageDTO(
-                        "failure",
-                        "Email is taken"
-                );
-                return ResponseEntity.status(HttpStatus.CONFLICT).body(responseDto);
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(EMAIL_TAKEN);
             }
 
-        } catch (Exception e) {
-            /* Handle unexpected errors during registration */
-            log.error("Registration process failed for email: {} - Error type: {} - Message: {}",
-                    userEmail,
-                    e.getClass().getSimpleName(),
-                    e.getMessage(),
-                    e
-            );
-            throw new RuntimeException(e);
-        }
+        }).exceptionally(e -> failure("register", userEmail, e));
     }
 
     /**
      * Handles user login requests.
      * Authenticates user credentials and generates a JWT token upon successful login.
+     * The password check runs on the hashing pool, so the request thread is released while it runs.
      *
      * @param userModel The user credentials for authentication
-     * @return ResponseEntity<?> with either:
+     * @return CompletableFuture<ResponseEntity<?>> with either:
      *         - UserInfoDTO with status 200 (OK) if login is successful
      *         - MessageDTO with status 409 (CONFLICT) if credentials are invalid
+     *         - MessageDTO with status 429 (TOO_MANY_REQUESTS) if the email has had too many attempts
+     *         - MessageDTO with status 503 (SERVICE_UNAVAILABLE) if the hashing queue is full
      *         - MessageDTO with status 500 (INTERNAL_SERVER_ERROR) if an unexpected error occurs
      */
     @RequestMapping(value = "/public/login", method = RequestMethod.POST)
-    public ResponseEntity<?> login(@RequestBody UserModel userModel) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody UserModel userModel) {
         String userEmail = userModel.getEmail();
-        log.info("Login attempt initiated for user - Email: {}", userEmail);
+        log.info(SUCCESS, "Login attempt initiated for user - Email: {}", userEmail);
+
+        long retryAfter = loginRateLimiter.tryAcquireEmail(userEmail);
+        if (retryAfter > 0) {
+            return CompletableFuture.completedFuture(throttled("login", userEmail, retryAfter));
+        }
 
-        try {
-            /* Attempt to authenticate the user */
-            UserModel authenticatedUser = userService.loginUser(userModel);
+        /* Attempt to authenticate the user */
+        return userService.loginUser(userModel).<ResponseEntity<?>>thenApply(authenticatedUser -> {
 
             if (authenticatedUser != null) {
                 /* Generate JWT token for successful login */
-                String token = jwtUtility.TokenGeneration(authenticatedUser.getEmail());
+                RefreshTokenService.TokenPair tokens = refreshTokenService.issue(authenticatedUser.getEmail());
                 log.debug("JWT token generated for login - User: {}", userEmail);
 
                 /* Create success response */
@@ -154,38 +210,107 @@ public class UsersController {
                         authenticatedUser.getFirstName(),
                         authenticatedUser.getLastName(),
                         authenticatedUser.getEmail(),
-                        token,
+                        tokens.accessToken(),
+                        tokens.refreshToken(),
                         "User logged in successfully"
                 );
 
-                log.info("User login successful - Email: {}", userEmail);
+                captureMetrics.authOutcome("login", "success");
+                log.info(SUCCESS, "User login successful - Email: {}", userEmail);
                 return ResponseEntity.status(HttpStatus.OK).body(responseDto);
 
             } else {
                 /* Handle invalid credentials */
+                captureMetrics.authOutcome("login", "invalid");
                 log.warn("Login failed - Invalid credentials for user: {}", userEmail);
 
-                MessageDTO responseDto = new MessageDTO(
-                        "failure",
-                        "Invalid credentials, try again"
-                );
-                return ResponseEntity.status(HttpStatus.CONFLICT).body(responseDto);
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(INVALID_CREDENTIALS);
             }
 
-        } catch (Exception e) {
-            /* Handle unexpected errors during login */
-            log.error("Login process failed for email: {} - Error type: {} - Message: {}",
-                    userEmail,
-                    e.getClass().getSimpleName(),
-                    e.getMessage(),
-                    e
-            );
-
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new MessageDTO(
-                            "failure",
-                            "Executed with exception " + e.getMessage()
-                    ));
+        }).exceptionally(e -> failure("login", userEmail, e));
+    }
+
+    /**
+     * Exchanges a refresh token for a new access token and a new refresh token.
+     * Does not touch the users table or BCrypt, so renewing a session is cheap.
+     *
+     * @param refreshTokenRequest carries the refresh token from login, register or the previous refresh
+     * @return ResponseEntity<?> with either:
+     *         - TokenDTO with status 200 (OK) and the new pair, the old refresh token is no longer valid
+     *         - MessageDTO with status 401 (UNAUTHORIZED) if the token is invalid, expired or already used
+     */
+    @RequestMapping(value = "/public/refresh", method = RequestMethod.POST)
+    public ResponseEntity<?> refresh(@RequestBody RefreshTokenRequestDTO refreshTokenRequest) {
+        String refreshToken = refreshTokenRequest.getRefreshToken();
+        RefreshTokenService.TokenPair tokens = refreshToken == null ? null : refreshTokenService.rotate(refreshToken);
+
+        if (tokens == null) {
+            log.warn("Token refresh rejected");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(REFRESH_REJECTED);
+        }
+
+        return ResponseEntity.status(HttpStatus.OK).body(new TokenDTO(
+                "success",
+                tokens.accessToken(),
+                tokens.refreshToken(),
+                "Token refreshed successfully"
+        ));
+    }
+
+    /**
+     * Refuses an attempt against an email that has used up its budget, without touching the database.
+     *
+     * @param operation register or login, for the log line and outcome counter
+     * @param userEmail the email the request was made for
+     * @param retryAfter seconds until the next attempt is allowed
+     * @return 429 (TOO_MANY_REQUESTS) with a Retry-After header
+     */
+    private ResponseEntity<?> throttled(String operation, String userEmail, long retryAfter) {
+        captureMetrics.authOutcome(operation, "throttled");
+        log.warn("{} throttled, too many attempts - Email: {}", operation, userEmail);
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter))
+                .body(TOO_MANY_ATTEMPTS);
+    }
+
+    /**
+     * Maps a failed registration or login to its response.
+     *
+     * @param operation register or login, for the log line and outcome counter
+     * @param userEmail the email the request was made for
+     * @param throwable the failure, possibly wrapped in a CompletionException
+     * @return 503 (SERVICE_UNAVAILABLE) if hashing is saturated, 500 (INTERNAL_SERVER_ERROR) otherwise
+     */
+    private ResponseEntity<?> failure(String operation, String userEmail, Throwable throwable) {
+        Throwable e = throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause()
+                : throwable;
+
+        if (e instanceof HashingCapacityExceededException) {
+            /* Shed load quickly, the client should back off and retry */
+            captureMetrics.authOutcome(operation, "rejected");
+            log.warn("{} rejected, password hashing saturated - Email: {}", operation, userEmail);
+
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(SERVER_BUSY);
         }
+
+        /* Handle unexpected errors */
+        captureMetrics.authOutcome(operation, "error");
+        log.error("{} process failed for email: {} - Error type: {} - Message: {}",
+                operation,
+                userEmail,
+                e.getClass().getSimpleName(),
+                e.getMessage(),
+                e
+        );
+
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new MessageDTO(
+                        "failure",
+                        "Executed with exception " + e.getMessage()
+                ));
     }
-}
\ No newline at end of file
+}
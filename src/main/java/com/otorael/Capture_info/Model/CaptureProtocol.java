@@ -0,0 +1,42 @@
+package com.otorael.Capture_info.Model;
+
+/**
+ * <p>
+ *     Protocol a capture arrived over, stored by ordinal in a one-byte column. Append new constants at the end,
+ *     reordering would change the meaning of rows already written.
+ * </p>
+ */
+public enum CaptureProtocol {
+
+    HTTP("http"),
+    HTTPS("https");
+
+    private final String scheme;
+
+    CaptureProtocol(String scheme) {
+        this.scheme = scheme;
+    }
+
+    /**
+     *
+     * @return the lower case scheme, as shown in the API
+     */
+    public String scheme() {
+        return scheme;
+    }
+
+    /**
+     *
+     * @param scheme http or https, in any case
+     * @return the matching protocol, or null for anything else
+     */
+    public static CaptureProtocol of(String scheme) {
+        if (HTTPS.scheme.equalsIgnoreCase(scheme)) {
+            return HTTPS;
+        }
+        if (HTTP.scheme.equalsIgnoreCase(scheme)) {
+            return HTTP;
+        }
+        return null;
+    }
+}
@@ -1,42 +1,75 @@
 package com.otorael.Capture_info.Model;
 
 import jakarta.persistence.*;
-import org.springframework.web.bind.annotation.PathVariable;
+
+import java.time.Instant;
 
 /**
  * <p>
  *     renaming the table as information-captured in the database.
  * </p>
+ * <p>
+ *     Every index ends with the id so keyset pagination can seek straight to the next page.
+ * </p>
+ * <p>
+ *     The client address is stored as its raw 4 or 16 bytes rather than text, so IPv4 and IPv6 rows compare
+ *     and index the same way whatever notation the proxy used. The protocol is a one-byte ordinal.
+ * </p>
+ * <p>
+ *     Ids are assigned by the writer rather than an IDENTITY column, and on MySQL the table is range
+ *     partitioned by day on {@code captured_at}, see {@code CapturePartitionManager}.
+ * </p>
  *
  */
 @Entity
-@Table(name = "information_captured")
+@Table(name = "information_captured", indexes = {
+        @Index(name = "idx_capture_addr_id", columnList = "client_address, id"),
+        @Index(name = "idx_capture_proto_id", columnList = "protocol, id"),
+        @Index(name = "idx_capture_time_id", columnList = "captured_at, id")
+})
 public class InformationModel {
     /**
      *
      * <p>
-     *     Auto incrementing the ID
+     *     Time ordered ID assigned before insert
      * </p>
      *
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
-    private String X_Forwarded_For;
-    private String X_Forwarded_Proto;
+    @Column(name = "client_address", length = 16)
+    private byte[] clientAddress;
+    @Enumerated(EnumType.ORDINAL)
+    @Column(name = "protocol")
+    private CaptureProtocol protocol;
+    @Column(name = "captured_at", nullable = false)
+    private Instant capturedAt;
 
     /**
      *
      *
      * @param id takes unique id of a given captured data/information
-     * @param x_Forwarded_For Get client IP address from X-Forwarded-For or RemoteAddr
-     * @param x_Forwarded_Proto Get X-Forwarded-Proto (HTTP or HTTPS)
+     * @param clientAddress client IP address resolved from X-Forwarded-For or RemoteAddr, 4 or 16 bytes
+     * @param protocol Get X-Forwarded-Proto (HTTP or HTTPS)
      *
      */
-    public InformationModel(Long id, String x_Forwarded_For, String x_Forwarded_Proto) {
+    public InformationModel(Long id, byte[] clientAddress, CaptureProtocol protocol) {
         this.id = id;
-        X_Forwarded_For = x_Forwarded_For;
-        X_Forwarded_Proto = x_Forwarded_Proto;
+        this.clientAddress = clientAddress;
+        this.protocol = protocol;
+    }
+
+    /**
+     *
+     * @param id takes unique id of a given captured data/information
+     * @param clientAddress client IP address resolved from X-Forwarded-For or RemoteAddr, 4 or 16 bytes
+     * @param protocol Get X-Forwarded-Proto (HTTP or HTTPS)
+     * @param capturedAt the moment the request was captured
+     *
+     */
+    public InformationModel(Long id, byte[] clientAddress, CaptureProtocol protocol, Instant capturedAt) {
+        this(id, clientAddress, protocol);
+        this.capturedAt = capturedAt;
     }
 
     public InformationModel() {
@@ -54,28 +87,40 @@ public class InformationModel {
         this.id = id;
     }
 
-    public String getX_Forwarded_For() {
-        return X_Forwarded_For;
+    public byte[] getClientAddress() {
+        return clientAddress;
     }
 
     /**
      *
-     * @param x_Forwarded_For SETTING INTO THE DATABASE IP ADDRESS
+     * @param clientAddress SETTING INTO THE DATABASE IP ADDRESS, 4 or 16 bytes
      */
-    public void setX_Forwarded_For(String x_Forwarded_For) {
-        X_Forwarded_For = x_Forwarded_For;
+    public void setClientAddress(byte[] clientAddress) {
+        this.clientAddress = clientAddress;
     }
 
-    public String getX_Forwarded_Proto() {
-        return X_Forwarded_Proto;
+    public CaptureProtocol getProtocol() {
+        return protocol;
     }
 
     /**
      *
      *
-     * @param x_Forwarded_Proto SETTING INTO THE DATABASE PROTOCOL i.e http or https
+     * @param protocol SETTING INTO THE DATABASE PROTOCOL i.e http or https
+     */
+    public void setProtocol(CaptureProtocol protocol) {
+        this.protocol = protocol;
+    }
+
+    public Instant getCapturedAt() {
+        return capturedAt;
+    }
+
+    /**
+     *
+     * @param capturedAt SETTING INTO THE DATABASE THE CAPTURE TIME
      */
-    public void setX_Forwarded_Proto(String x_Forwarded_Proto) {
-        X_Forwarded_Proto = x_Forwarded_Proto;
+    public void setCapturedAt(Instant capturedAt) {
+        this.capturedAt = capturedAt;
     }
 }
@@ -0,0 +1,91 @@
+package com.otorael.Capture_info.Model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * <p>
+ *     One refresh token family, i.e. one login, and the id of the only refresh token in it that may still be
+ *     rotated. A null current id means the family was revoked after a token was reused. Rows are deleted once
+ *     the newest token would have expired anyway.
+ * </p>
+ * <p>
+ *     The id is generated by the application, so the entity says itself whether it is new; otherwise
+ *     {@code save} would merge and read the row before every insert.
+ * </p>
+ */
+@Entity
+@Table(name = "refresh_token_families", indexes = {
+        @Index(name = "idx_refresh_family_expires_at", columnList = "expires_at")
+})
+public class RefreshTokenFamilyModel implements Persistable<String> {
+
+    @Id
+    @Column(name = "family", length = 36)
+    private String family;
+    @Column(name = "current_token_id", length = 36)
+    private String currentTokenId;
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    /** set once the row is known to exist, until then save() inserts without looking for it first */
+    @Transient
+    private boolean persisted;
+
+    /**
+     *
+     * @param family the family id carried in every refresh token of the login
+     * @param currentTokenId jti of the newest refresh token, the only one rotation accepts
+     * @param expiresAt when the newest refresh token expires and the row can be deleted
+     */
+    public RefreshTokenFamilyModel(String family, String currentTokenId, Instant expiresAt) {
+        this.family = family;
+        this.currentTokenId = currentTokenId;
+        this.expiresAt = expiresAt;
+    }
+
+    public RefreshTokenFamilyModel() {
+    }
+
+    public String getFamily() {
+        return family;
+    }
+
+    public void setFamily(String family) {
+        this.family = family;
+    }
+
+    public String getCurrentTokenId() {
+        return currentTokenId;
+    }
+
+    public void setCurrentTokenId(String currentTokenId) {
+        this.currentTokenId = currentTokenId;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public String getId() {
+        return family;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+}
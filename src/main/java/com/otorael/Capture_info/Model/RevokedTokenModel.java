@@ -0,0 +1,95 @@
+package com.otorael.Capture_info.Model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * <p>
+ *     A revoked token, stored as the hex SHA-256 digest of the token so the token itself is never persisted.
+ *     Rows are deleted once the token would have expired anyway.
+ * </p>
+ * <p>
+ *     {@code revoked_at} is stamped by the database on insert, so every node's rows are ordered by the same
+ *     clock and the sync in {@code TokenRevocationStore} does not depend on how far the nodes' clocks drift.
+ * </p>
+ * <p>
+ *     The id is the token digest, so the entity says itself whether it is new; otherwise {@code save} would
+ *     merge and read the row before every insert.
+ * </p>
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_at", columnList = "revoked_at"),
+        @Index(name = "idx_revoked_expires_at", columnList = "expires_at")
+})
+public class RevokedTokenModel implements Persistable<String> {
+
+    @Id
+    @Column(name = "token_digest", length = 64)
+    private String tokenDigest;
+    @ColumnDefault("CURRENT_TIMESTAMP(6)")
+    @Column(name = "revoked_at", nullable = false, insertable = false, updatable = false)
+    private Instant revokedAt;
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    /** set once the row is known to exist, until then save() inserts without looking for it first */
+    @Transient
+    private boolean persisted;
+
+    /**
+     *
+     * @param tokenDigest hex SHA-256 digest of the revoked token
+     * @param expiresAt when the token expires and the row can be deleted
+     */
+    public RevokedTokenModel(String tokenDigest, Instant expiresAt) {
+        this.tokenDigest = tokenDigest;
+        this.expiresAt = expiresAt;
+    }
+
+    public RevokedTokenModel() {
+    }
+
+    public String getTokenDigest() {
+        return tokenDigest;
+    }
+
+    public void setTokenDigest(String tokenDigest) {
+        this.tokenDigest = tokenDigest;
+    }
+
+    public Instant getRevokedAt() {
+        return revokedAt;
+    }
+
+    public void setRevokedAt(Instant revokedAt) {
+        this.revokedAt = revokedAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public String getId() {
+        return tokenDigest;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+}
@@ -2,15 +2,28 @@ package com.otorael.Capture_info.Model;
 
 import jakarta.persistence.*;
 
+/**
+ * <p>
+ *     Emails are unique: the constraint's index serves login lookups and rejects duplicate registrations.
+ * </p>
+ */
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = UserModel.EMAIL_CONSTRAINT, columnNames = "email")
+})
 public class UserModel {
 
+    /**
+     * Name of the unique email constraint, a violation of it is the only one that means the email is taken.
+     */
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     private String firstName;
     private String lastName;
+    @Column(nullable = false)
     private String email;
     private String password;
 
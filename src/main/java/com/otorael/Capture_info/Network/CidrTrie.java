@@ -0,0 +1,91 @@
+package com.otorael.Capture_info.Network;
+
+import java.util.Arrays;
+
+/**
+ * A binary prefix trie over address bits, answering "is this address inside any of these CIDR blocks".
+ * <p>
+ *     Nodes live in parallel int arrays, so a lookup is at most one array read per address bit and allocates
+ *     nothing. The trie is filled once at startup and only read afterwards.
+ * </p>
+ */
+final class CidrTrie {
+
+    private final int bits;
+
+    private int[] zero = new int[16];
+    private int[] one = new int[16];
+    private boolean[] terminal = new boolean[16];
+    private int nodes = 1;
+
+    /**
+     *
+     * @param bits 32 for IPv4, 128 for IPv6
+     */
+    CidrTrie(int bits) {
+        this.bits = bits;
+    }
+
+    /**
+     *
+     * @param high high word of the block's address, as parsed by {@link IpAddresses}
+     * @param low low word of the block's address
+     * @param prefixLength number of leading bits that must match
+     */
+    void add(long high, long low, int prefixLength) {
+        if (prefixLength < 0 || prefixLength > bits) {
+            throw new IllegalArgumentException("Prefix length " + prefixLength + " is out of range for " + bits + " bits");
+        }
+
+        int node = 0;
+        for (int i = 0; i < prefixLength; i++) {
+            int child = bit(high, low, i) ? one[node] : zero[node];
+            if (child == 0) {
+                /* allocate first, newNode may replace the arrays */
+                child = newNode();
+                if (bit(high, low, i)) {
+                    one[node] = child;
+                } else {
+                    zero[node] = child;
+                }
+            }
+            node = child;
+        }
+        terminal[node] = true;
+    }
+
+    /**
+     *
+     * @param high high word of the address, as parsed by {@link IpAddresses}
+     * @param low low word of the address
+     * @return true if a block added earlier covers the address
+     */
+    boolean contains(long high, long low) {
+        int node = 0;
+        for (int i = 0; i < bits; i++) {
+            if (terminal[node]) {
+                return true;
+            }
+            node = bit(high, low, i) ? one[node] : zero[node];
+            if (node == 0) {
+                return false;
+            }
+        }
+        return terminal[node];
+    }
+
+    private int newNode() {
+        if (nodes == terminal.length) {
+            zero = Arrays.copyOf(zero, nodes * 2);
+            one = Arrays.copyOf(one, nodes * 2);
+            terminal = Arrays.copyOf(terminal, nodes * 2);
+        }
+        return nodes++;
+    }
+
+    private static boolean bit(long high, long low, int index) {
+        return index < 64
+                ? (high >>> (63 - index) & 1) != 0
+                : (low >>> (127 - index) & 1) != 0;
+    }
+}
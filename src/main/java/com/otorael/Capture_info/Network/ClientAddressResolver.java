@@ -0,0 +1,173 @@
+package com.otorael.Capture_info.Network;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+/**
+ * Works out which address a request really came from, and over which protocol.
+ * <p>
+ *     X-Forwarded-For is only believed when the peer is a trusted proxy. The list is then walked from the
+ *     right, the hop the nearest proxy added, past every hop that is itself a trusted proxy; the first hop
+ *     that is not trusted is the client. A hop that does not parse leaves the client unknown: the trusted proxy
+ *     that passed it on is not the client, and nothing to its left can be vouched for. Without a trusted peer
+ *     the peer address is the client and
+ *     forwarded headers are ignored, so a client cannot pick its own address. X-Forwarded-Proto follows the
+ *     same rule.
+ * </p>
+ * <p>
+ *     Trusted proxies are the CIDR blocks in {@code client-address.trusted-proxies}, held in one
+ *     {@link CidrTrie} per address family. Resolution parses in place and allocates only the result.
+ * </p>
+ */
+@Component
+public class ClientAddressResolver {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientAddressResolver.class);
+
+    /**
+     *
+     * @param address 4 or 16 address bytes, null if the peer address or a forwarded hop that had to be
+     *                believed could not be parsed
+     * @param protocol http or https
+     */
+    public record ClientAddress(byte[] address, String protocol) {
+
+        /**
+         *
+         * @return the address as text, e.g. {@code 203.0.113.7} or {@code 2001:db8::1}
+         */
+        public String text() {
+            return IpAddresses.format(address);
+        }
+    }
+
+    private final CidrTrie trustedV4 = new CidrTrie(32);
+    private final CidrTrie trustedV6 = new CidrTrie(128);
+
+    public ClientAddressResolver(
+            @Value("${client-address.trusted-proxies:127.0.0.0/8,::1/128}") List<String> trustedProxies
+    ) {
+        long[] words = new long[2];
+        for (String block : trustedProxies) {
+            int slash = block.indexOf('/');
+            int end = slash < 0 ? block.length() : slash;
+            int family = IpAddresses.parse(block, 0, end, words);
+            if (family == IpAddresses.INVALID) {
+                throw new IllegalArgumentException("Not a CIDR block in client-address.trusted-proxies: " + block);
+            }
+
+            CidrTrie trie = family == IpAddresses.V4 ? trustedV4 : trustedV6;
+            int prefixLength = slash < 0 ? (family == IpAddresses.V4 ? 32 : 128) : Integer.parseInt(block.substring(slash + 1).trim());
+            trie.add(words[0], words[1], prefixLength);
+        }
+        log.info("Client address resolver trusts {} proxy blocks", trustedProxies.size());
+    }
+
+    /**
+     *
+     * @param request the incoming request
+     * @return the client address and protocol
+     */
+    public ClientAddress resolve(HttpServletRequest request) {
+        return resolve(
+                request.getRemoteAddr(),
+                request.getScheme(),
+                request.getHeader("X-Forwarded-For"),
+                request.getHeader("X-Forwarded-Proto")
+        );
+    }
+
+    /**
+     *
+     * @param request the incoming request on the reactive stack
+     * @return the client address and protocol
+     */
+    public ClientAddress resolve(ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        return resolve(
+                remoteAddress == null || remoteAddress.getAddress() == null ? null : remoteAddress.getAddress().getHostAddress(),
+                request.getURI().getScheme(),
+                request.getHeaders().getFirst("X-Forwarded-For"),
+                request.getHeaders().getFirst("X-Forwarded-Proto")
+        );
+    }
+
+    private ClientAddress resolve(String remoteAddr, String scheme, String forwardedFor, String forwardedProto) {
+        long[] words = new long[2];
+
+        int family = remoteAddr == null ? IpAddresses.INVALID : IpAddresses.parse(remoteAddr, 0, remoteAddr.length(), words);
+        if (family == IpAddresses.INVALID) {
+            return new ClientAddress(null, scheme);
+        }
+        long high = words[0];
+        long low = words[1];
+
+        if (!isTrusted(family, high, low)) {
+            return new ClientAddress(IpAddresses.toBytes(family, high, low), scheme);
+        }
+
+        if (forwardedFor != null) {
+            int end = forwardedFor.length();
+            while (end >= 0) {
+                int comma = forwardedFor.lastIndexOf(',', end - 1);
+                int hopFamily = IpAddresses.parse(forwardedFor, comma + 1, end, words);
+                if (hopFamily == IpAddresses.INVALID) {
+                    return new ClientAddress(null, forwardedProtocol(forwardedProto, scheme));
+                }
+                family = hopFamily;
+                high = words[0];
+                low = words[1];
+                if (!isTrusted(family, high, low)) {
+                    break;
+                }
+                end = comma;
+            }
+        }
+
+        return new ClientAddress(IpAddresses.toBytes(family, high, low), forwardedProtocol(forwardedProto, scheme));
+    }
+
+    /**
+     *
+     * @param forwardedProto the X-Forwarded-Proto header of a request whose peer is a trusted proxy
+     * @param scheme the request's own scheme
+     * @return the first X-Forwarded-Proto value if it is http or https, otherwise the request's own scheme
+     */
+    private static String forwardedProtocol(String forwardedProto, String scheme) {
+        if (forwardedProto == null) {
+            return scheme;
+        }
+
+        int start = 0;
+        while (start < forwardedProto.length() && forwardedProto.charAt(start) == ' ') {
+            start++;
+        }
+        int end = forwardedProto.indexOf(',', start);
+        if (end < 0) {
+            end = forwardedProto.length();
+        }
+        while (end > start && forwardedProto.charAt(end - 1) == ' ') {
+            end--;
+        }
+
+        /* return constants so the stored protocol is one of two interned strings */
+        if (end - start == 5 && forwardedProto.regionMatches(true, start, "https", 0, 5)) {
+            return "https";
+        }
+        if (end - start == 4 && forwardedProto.regionMatches(true, start, "http", 0, 4)) {
+            return "http";
+        }
+        return scheme;
+    }
+
+    private boolean isTrusted(int family, long high, long low) {
+        return family == IpAddresses.V4 ? trustedV4.contains(high, low) : trustedV6.contains(high, low);
+    }
+}
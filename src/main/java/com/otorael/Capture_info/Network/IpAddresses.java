@@ -0,0 +1,304 @@
+package com.otorael.Capture_info.Network;
+
+/**
+ * Parses and formats IPv4 and IPv6 addresses without {@link java.net.InetAddress}.
+ * <p>
+ *     Parsing reads characters straight out of the source string by index, so a hop in the middle of an
+ *     X-Forwarded-For list is parsed without a substring, a split or a DNS-capable lookup. A parsed address is
+ *     128 bits held in two longs: IPv4 addresses sit in the top 32 bits of the high word, and IPv4-mapped IPv6
+ *     addresses ({@code ::ffff:a.b.c.d}) are reported as IPv4. The stored form is the raw 4 or 16 bytes.
+ * </p>
+ */
+public final class IpAddresses {
+
+    public static final int INVALID = 0;
+    public static final int V4 = 4;
+    public static final int V6 = 6;
+
+    private IpAddresses() {
+    }
+
+    /**
+     *
+     * @param text the address, optionally bracketed, with a port or a zone id, e.g. {@code [fe80::1%eth0]:443}
+     * @param from index of the first character
+     * @param to index after the last character
+     * @param out receives the high and low words on success, untouched otherwise
+     * @return {@link #V4}, {@link #V6} or {@link #INVALID}
+     */
+    public static int parse(String text, int from, int to, long[] out) {
+        while (from < to && text.charAt(from) <= ' ') {
+            from++;
+        }
+        while (to > from && text.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        if (from >= to) {
+            return INVALID;
+        }
+
+        if (text.charAt(from) == '[') {
+            /* anything after the closing bracket is a port */
+            int close = text.indexOf(']', from);
+            return close < 0 || close >= to ? INVALID : parseV6(text, from + 1, close, out);
+        }
+
+        int firstColon = -1;
+        int colons = 0;
+        for (int i = from; i < to; i++) {
+            if (text.charAt(i) == ':' && colons++ == 0) {
+                firstColon = i;
+            }
+        }
+        if (colons > 1) {
+            return parseV6(text, from, to, out);
+        }
+
+        /* a single colon can only be an IPv4 address followed by a port */
+        long value = ipv4(text, from, colons == 1 ? firstColon : to);
+        if (value < 0) {
+            return INVALID;
+        }
+        out[0] = value << 32;
+        out[1] = 0;
+        return V4;
+    }
+
+    /**
+     *
+     * @param text an address as typed by a user, e.g. in a query parameter
+     * @return the 4 or 16 address bytes, or null if it is not an address
+     */
+    public static byte[] parse(String text) {
+        if (text == null) {
+            return null;
+        }
+        long[] words = new long[2];
+        int family = parse(text, 0, text.length(), words);
+        return family == INVALID ? null : toBytes(family, words[0], words[1]);
+    }
+
+    /**
+     *
+     * @param family {@link #V4} or {@link #V6}
+     * @param high the high word from {@link #parse(String, int, int, long[])}
+     * @param low the low word
+     * @return 4 bytes for IPv4, 16 bytes for IPv6, network byte order
+     */
+    public static byte[] toBytes(int family, long high, long low) {
+        byte[] bytes = new byte[family == V4 ? 4 : 16];
+        for (int i = 0; i < bytes.length; i++) {
+            long word = i < 8 ? high : low;
+            bytes[i] = (byte) (word >>> (56 - 8 * (i & 7)));
+        }
+        return bytes;
+    }
+
+    /**
+     *
+     * @param bytes 4 or 16 address bytes
+     * @return dotted quad for IPv4, RFC 5952 text for IPv6, null for anything else
+     */
+    public static String format(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        if (bytes.length == 4) {
+            return (bytes[0] & 0xff) + "." + (bytes[1] & 0xff) + "." + (bytes[2] & 0xff) + "." + (bytes[3] & 0xff);
+        }
+        if (bytes.length != 16) {
+            return null;
+        }
+
+        int[] groups = new int[8];
+        for (int i = 0; i < 8; i++) {
+            groups[i] = (bytes[2 * i] & 0xff) << 8 | bytes[2 * i + 1] & 0xff;
+        }
+
+        /* the longest run of two or more zero groups is written as "::", the first one wins a tie */
+        int bestStart = -1;
+        int bestLength = 1;
+        for (int i = 0; i < 8; ) {
+            int length = 0;
+            while (i + length < 8 && groups[i + length] == 0) {
+                length++;
+            }
+            if (length > bestLength) {
+                bestStart = i;
+                bestLength = length;
+            }
+            i += Math.max(1, length);
+        }
+
+        StringBuilder text = new StringBuilder(39);
+        for (int i = 0; i < 8; i++) {
+            if (i == bestStart) {
+                text.append("::");
+                i += bestLength - 1;
+                continue;
+            }
+            if (!text.isEmpty() && text.charAt(text.length() - 1) != ':') {
+                text.append(':');
+            }
+            text.append(Integer.toHexString(groups[i]));
+        }
+        return text.toString();
+    }
+
+    /**
+     *
+     * @return the address as an unsigned 32-bit value, or -1 if the range is not a dotted quad
+     */
+    private static long ipv4(String text, int from, int to) {
+        long value = 0;
+        int octets = 0;
+        int octet = 0;
+        int digits = 0;
+
+        for (int i = from; i <= to; i++) {
+            char c = i < to ? text.charAt(i) : '.';
+            if (c == '.') {
+                if (digits == 0 || octets == 4) {
+                    return -1;
+                }
+                value = value << 8 | octet;
+                octets++;
+                octet = 0;
+                digits = 0;
+            } else if (c >= '0' && c <= '9') {
+                octet = octet * 10 + (c - '0');
+                if (++digits > 3 || octet > 255) {
+                    return -1;
+                }
+            } else {
+                return -1;
+            }
+        }
+        return octets == 4 ? value : -1;
+    }
+
+    private static int parseV6(String text, int from, int to, long[] out) {
+        int zone = text.indexOf('%', from);
+        if (zone >= 0 && zone < to) {
+            to = zone;
+        }
+        if (to - from < 2) {
+            return INVALID;
+        }
+
+        /* groups before "::" and after it are collected separately, then the gap is filled with zeros */
+        long leftHigh = 0, leftLow = 0, rightHigh = 0, rightLow = 0;
+        int leftGroups = 0, rightGroups = 0;
+        boolean compressed = false;
+
+        int i = from;
+        if (text.charAt(i) == ':') {
+            if (text.charAt(i + 1) != ':') {
+                return INVALID;
+            }
+            compressed = true;
+            i += 2;
+        }
+
+        while (i < to) {
+            int end = i;
+            boolean dotted = false;
+            while (end < to && text.charAt(end) != ':') {
+                dotted |= text.charAt(end) == '.';
+                end++;
+            }
+            if (end == i) {
+                return INVALID;
+            }
+
+            if (dotted) {
+                /* an embedded IPv4 address fills the last two groups */
+                long value = end == to ? ipv4(text, i, end) : -1;
+                if (value < 0) {
+                    return INVALID;
+                }
+                if (compressed) {
+                    rightHigh = rightHigh << 32 | rightLow >>> 32;
+                    rightLow = rightLow << 32 | value;
+                    rightGroups += 2;
+                } else {
+                    leftHigh = leftHigh << 32 | leftLow >>> 32;
+                    leftLow = leftLow << 32 | value;
+                    leftGroups += 2;
+                }
+                break;
+            }
+
+            if (end - i > 4) {
+                return INVALID;
+            }
+            int group = 0;
+            for (int j = i; j < end; j++) {
+                int digit = Character.digit(text.charAt(j), 16);
+                if (digit < 0) {
+                    return INVALID;
+                }
+                group = group << 4 | digit;
+            }
+            if (compressed) {
+                rightHigh = rightHigh << 16 | rightLow >>> 48;
+                rightLow = rightLow << 16 | group;
+                rightGroups++;
+            } else {
+                leftHigh = leftHigh << 16 | leftLow >>> 48;
+                leftLow = leftLow << 16 | group;
+                leftGroups++;
+            }
+
+            if (end == to) {
+                break;
+            }
+            if (end + 1 == to) {
+                return INVALID;
+            }
+            if (text.charAt(end + 1) == ':') {
+                if (compressed) {
+                    return INVALID;
+                }
+                compressed = true;
+                i = end + 2;
+            } else {
+                i = end + 1;
+            }
+        }
+
+        int groups = leftGroups + rightGroups;
+        if (compressed ? groups > 7 : groups != 8) {
+            return INVALID;
+        }
+
+        /* shift the left part up over the zero gap and the right part */
+        int shift = 16 * (8 - leftGroups);
+        long high;
+        long low;
+        if (shift == 0) {
+            high = leftHigh;
+            low = leftLow;
+        } else if (shift >= 128) {
+            high = 0;
+            low = 0;
+        } else if (shift >= 64) {
+            high = leftLow << (shift - 64);
+            low = 0;
+        } else {
+            high = leftHigh << shift | leftLow >>> (64 - shift);
+            low = leftLow << shift;
+        }
+        high |= rightHigh;
+        low |= rightLow;
+
+        if (high == 0 && low >>> 32 == 0xffffL) {
+            out[0] = low << 32;
+            out[1] = 0;
+            return V4;
+        }
+        out[0] = high;
+        out[1] = low;
+        return V6;
+    }
+}
@@ -1,9 +1,68 @@
 package com.otorael.Capture_info.Repository;
 
+import com.otorael.Capture_info.Model.CaptureProtocol;
 import com.otorael.Capture_info.Model.InformationModel;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+/**
+ * <p>
+ *     Capture queries are keyset (seek) paginated: callers pass the last id (and capture time) they saw
+ *     instead of an offset, so every page is a bounded index range scan no matter how deep the caller goes.
+ * </p>
+ */
 @Repository
 public interface InformationRepository extends JpaRepository<InformationModel, Long> {
+
+    /**
+     * Rows per round trip when streaming an export.
+     */
+    int EXPORT_FETCH_SIZE = 500;
+
+    @Query("select i from InformationModel i where i.clientAddress = :address and i.id > :afterId order by i.id asc")
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    List<InformationModel> findPageByClientAddress(@Param("address") byte[] address, @Param("afterId") long afterId, Limit limit);
+
+    @Query("select i from InformationModel i where i.protocol = :protocol and i.id > :afterId order by i.id asc")
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    List<InformationModel> findPageByProtocol(@Param("protocol") CaptureProtocol protocol, @Param("afterId") long afterId, Limit limit);
+
+    @Query("select i from InformationModel i"
+            + " where i.capturedAt < :to"
+            + " and (i.capturedAt > :afterCapturedAt or (i.capturedAt = :afterCapturedAt and i.id > :afterId))"
+            + " order by i.capturedAt asc, i.id asc")
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    List<InformationModel> findPageByCapturedAt(
+            @Param("afterCapturedAt") Instant afterCapturedAt,
+            @Param("afterId") long afterId,
+            @Param("to") Instant to,
+            Limit limit
+    );
+
+    /**
+     * <p>
+     *     Rows are fetched {@value #EXPORT_FETCH_SIZE} at a time. On MySQL that needs {@code useCursorFetch=true}
+     *     on the connection, set in the datasource configuration, otherwise Connector/J buffers the whole result
+     *     set; Integer.MIN_VALUE would stream row by row but only on Connector/J, other drivers reject it.
+     *     Must be consumed inside a read-only transaction.
+     * </p>
+     */
+    @Query("select i from InformationModel i where i.capturedAt >= :from and i.capturedAt < :to order by i.capturedAt asc, i.id asc")
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<InformationModel> streamByCapturedAt(@Param("from") Instant from, @Param("to") Instant to);
 }
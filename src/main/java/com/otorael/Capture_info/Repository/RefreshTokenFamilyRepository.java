@@ -0,0 +1,42 @@
+package com.otorael.Capture_info.Repository;
+
+import com.otorael.Capture_info.Model.RefreshTokenFamilyModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface RefreshTokenFamilyRepository extends JpaRepository<RefreshTokenFamilyModel, String> {
+
+    /**
+     * Moves the family on to the next token, but only if the presented token is still the current one,
+     * so two nodes rotating the same token cannot both succeed.
+     *
+     * @return 1 if the family moved on, 0 if the token was not current or the family is gone
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update RefreshTokenFamilyModel f set f.currentTokenId = :nextId, f.expiresAt = :expiresAt"
+            + " where f.family = :family and f.currentTokenId = :presentedId")
+    int advance(
+            @Param("family") String family,
+            @Param("presentedId") String presentedId,
+            @Param("nextId") String nextId,
+            @Param("expiresAt") Instant expiresAt
+    );
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update RefreshTokenFamilyModel f set f.currentTokenId = null where f.family = :family")
+    int revoke(@Param("family") String family);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("delete from RefreshTokenFamilyModel f where f.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,23 @@
+package com.otorael.Capture_info.Repository;
+
+import com.otorael.Capture_info.Model.RevokedTokenModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedTokenModel, String> {
+
+    List<RevokedTokenModel> findByRevokedAtAfterAndExpiresAtAfter(Instant revokedAfter, Instant expiresAfter);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RevokedTokenModel r where r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
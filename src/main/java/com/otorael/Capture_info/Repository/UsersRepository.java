@@ -2,10 +2,31 @@ package com.otorael.Capture_info.Repository;
 
 import com.otorael.Capture_info.Model.UserModel;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface UsersRepository extends JpaRepository<UserModel, Long> {
 
+    /**
+     * Read-only, so with replicas configured the lookup is served by a replica.
+     */
+    @Transactional(readOnly = true)
     UserModel findByEmail(String email);
+
+    /**
+     * Swaps the password hash only if it is still the one that was checked, so a concurrent
+     * password change is never overwritten by a background rehash.
+     *
+     * @return 1 if the hash was replaced, 0 otherwise
+     */
+    @Transactional
+    @Modifying
+    @Query("update UserModel u set u.password = :newPassword where u.id = :id and u.password = :oldPassword")
+    int updatePassword(@Param("id") Long id,
+                       @Param("oldPassword") String oldPassword,
+                       @Param("newPassword") String newPassword);
 }
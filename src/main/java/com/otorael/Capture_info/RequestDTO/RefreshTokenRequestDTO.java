@@ -0,0 +1,25 @@
+package com.otorael.Capture_info.RequestDTO;
+
+public class RefreshTokenRequestDTO {
+
+    private String refreshToken;
+
+    public RefreshTokenRequestDTO() {
+    }
+
+    /**
+     *
+     * @param refreshToken the refresh token returned by login, register or a previous refresh
+     */
+    public RefreshTokenRequestDTO(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+}
@@ -0,0 +1,77 @@
+package com.otorael.Capture_info.ResponseDTO;
+
+import java.time.Instant;
+import java.util.List;
+
+public class CapturePageDTO {
+
+    private String notification;
+    private List<CaptureRecordDTO> captures;
+    private Long nextAfterId;
+    private Instant nextAfterCapturedAt;
+    private String message;
+
+    /**
+     *
+     * @param notification THROWS quick success notifications
+     * @param captures the captures on this page
+     * @param nextAfterId pass back as afterId to get the next page, null when the page came back short and is
+     *                    the last one; a full page always carries it, so the page after it may be empty
+     * @param nextAfterCapturedAt pass back as afterCapturedAt to get the next page of a time range query, null
+     *                            whenever nextAfterId is
+     * @param message Shows description message for the response
+     *
+     */
+    public CapturePageDTO(String notification,
+                          List<CaptureRecordDTO> captures,
+                          Long nextAfterId,
+                          Instant nextAfterCapturedAt,
+                          String message)
+    {
+        this.notification = notification;
+        this.captures = captures;
+        this.nextAfterId = nextAfterId;
+        this.nextAfterCapturedAt = nextAfterCapturedAt;
+        this.message = message;
+    }
+
+    public String getNotification() {
+        return notification;
+    }
+
+    public void setNotification(String notification) {
+        this.notification = notification;
+    }
+
+    public List<CaptureRecordDTO> getCaptures() {
+        return captures;
+    }
+
+    public void setCaptures(List<CaptureRecordDTO> captures) {
+        this.captures = captures;
+    }
+
+    public Long getNextAfterId() {
+        return nextAfterId;
+    }
+
+    public void setNextAfterId(Long nextAfterId) {
+        this.nextAfterId = nextAfterId;
+    }
+
+    public Instant getNextAfterCapturedAt() {
+        return nextAfterCapturedAt;
+    }
+
+    public void setNextAfterCapturedAt(Instant nextAfterCapturedAt) {
+        this.nextAfterCapturedAt = nextAfterCapturedAt;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,70 @@
+package com.otorael.Capture_info.ResponseDTO;
+
+import com.otorael.Capture_info.Model.InformationModel;
+import com.otorael.Capture_info.Network.IpAddresses;
+
+import java.time.Instant;
+
+public class CaptureRecordDTO {
+
+    private Long id;
+    private String X_Forwarded_For;
+    private String X_Forwarded_Proto;
+    private Instant capturedAt;
+
+    /**
+     *
+     * @param id unique id of the captured information
+     * @param x_Forwarded_For client IP address that was captured
+     * @param x_Forwarded_Proto protocol that was captured i.e http or https
+     * @param capturedAt the moment the request was captured
+     *
+     */
+    public CaptureRecordDTO(Long id, String x_Forwarded_For, String x_Forwarded_Proto, Instant capturedAt) {
+        this.id = id;
+        X_Forwarded_For = x_Forwarded_For;
+        X_Forwarded_Proto = x_Forwarded_Proto;
+        this.capturedAt = capturedAt;
+    }
+
+    public static CaptureRecordDTO from(InformationModel informationModel) {
+        return new CaptureRecordDTO(
+                informationModel.getId(),
+                IpAddresses.format(informationModel.getClientAddress()),
+                informationModel.getProtocol() != null ? informationModel.getProtocol().scheme() : null,
+                informationModel.getCapturedAt()
+        );
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getX_Forwarded_For() {
+        return X_Forwarded_For;
+    }
+
+    public void setX_Forwarded_For(String x_Forwarded_For) {
+        X_Forwarded_For = x_Forwarded_For;
+    }
+
+    public String getX_Forwarded_Proto() {
+        return X_Forwarded_Proto;
+    }
+
+    public void setX_Forwarded_Proto(String x_Forwarded_Proto) {
+        X_Forwarded_Proto = x_Forwarded_Proto;
+    }
+
+    public Instant getCapturedAt() {
+        return capturedAt;
+    }
+
+    public void setCapturedAt(Instant capturedAt) {
+        this.capturedAt = capturedAt;
+    }
+}
@@ -0,0 +1,44 @@
+package com.otorael.Capture_info.ResponseDTO;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * A response body serialized once, up front, for responses that never change such as
+ * {@code {"notification":"failure","message":"Email is taken"}}. Returning one from a controller writes
+ * the cached bytes as they are, with a Content-Length, and serializes nothing per request.
+ */
+public final class EncodedJson {
+
+    private final byte[] json;
+
+    private EncodedJson(byte[] json) {
+        this.json = json;
+    }
+
+    /**
+     *
+     * @param notification e.g. failure
+     * @param message the description the client sees
+     * @return the pre-encoded body of {@code new MessageDTO(notification, message)}
+     */
+    public static EncodedJson message(String notification, String message) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        try {
+            JsonResponseWriter.write(new MessageDTO(notification, message), out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new EncodedJson(out.toByteArray());
+    }
+
+    public int length() {
+        return json.length;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(json);
+    }
+}
@@ -0,0 +1,235 @@
+package com.otorael.Capture_info.ResponseDTO;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Hand-specialized JSON writers for the response DTOs on the auth and get-info paths.
+ * <p>
+ *     Each writer emits the same bytes Jackson would for the DTO: the same property names in the same order,
+ *     nulls as {@code null}, Jackson's escapes and UTF-8. Property names and punctuation are pre-encoded
+ *     constants and string values are encoded char by char into one small fixed chunk that is handed to the
+ *     output stream whenever it fills, so writing a response builds no String, tree model or whole-body
+ *     buffer and needs no reflection.
+ * </p>
+ * <p>
+ *     A DTO written here must be kept in step with its getters. {@code JsonResponseWriterTest} compares every
+ *     writer with Jackson.
+ * </p>
+ */
+public final class JsonResponseWriter {
+
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = ascii("null");
+
+    private static final byte[] NOTIFICATION = ascii("{\"notification\":");
+    private static final byte[] MESSAGE = ascii(",\"message\":");
+    private static final byte[] FIRST_NAME = ascii(",\"firstName\":");
+    private static final byte[] LAST_NAME = ascii(",\"lastName\":");
+    private static final byte[] EMAIL = ascii(",\"email\":");
+    private static final byte[] TOKEN = ascii(",\"token\":");
+    private static final byte[] REFRESH_TOKEN = ascii(",\"refreshToken\":");
+    /* Jackson derives these from getX_Forwarded_Proto and getX_Forwarded_For and puts them after message, in
+       whatever order reflection lists the getters; here the order is fixed */
+    private static final byte[] FORWARDED_PROTO = ascii(",\"x_Forwarded_Proto\":");
+    private static final byte[] FORWARDED_FOR = ascii(",\"x_Forwarded_For\":");
+
+    /* big enough for a typical login response in one write; a JWT pair spills into a second */
+    private static final int CHUNK = 256;
+
+    private JsonResponseWriter() {
+    }
+
+    public static void write(MessageDTO dto, OutputStream out) throws IOException {
+        Chunk chunk = new Chunk(out);
+        chunk.raw(NOTIFICATION);
+        chunk.string(dto.getNotification());
+        chunk.raw(MESSAGE);
+        chunk.string(dto.getMessage());
+        chunk.raw('}');
+        chunk.flush();
+    }
+
+    public static void write(UserInfoDTO dto, OutputStream out) throws IOException {
+        Chunk chunk = new Chunk(out);
+        chunk.raw(NOTIFICATION);
+        chunk.string(dto.getNotification());
+        chunk.raw(FIRST_NAME);
+        chunk.string(dto.getFirstName());
+        chunk.raw(LAST_NAME);
+        chunk.string(dto.getLastName());
+        chunk.raw(EMAIL);
+        chunk.string(dto.getEmail());
+        chunk.raw(TOKEN);
+        chunk.string(dto.getToken());
+        chunk.raw(REFRESH_TOKEN);
+        chunk.string(dto.getRefreshToken());
+        chunk.raw(MESSAGE);
+        chunk.string(dto.getMessage());
+        chunk.raw('}');
+        chunk.flush();
+    }
+
+    public static void write(TokenDTO dto, OutputStream out) throws IOException {
+        Chunk chunk = new Chunk(out);
+        chunk.raw(NOTIFICATION);
+        chunk.string(dto.getNotification());
+        chunk.raw(TOKEN);
+        chunk.string(dto.getToken());
+        chunk.raw(REFRESH_TOKEN);
+        chunk.string(dto.getRefreshToken());
+        chunk.raw(MESSAGE);
+        chunk.string(dto.getMessage());
+        chunk.raw('}');
+        chunk.flush();
+    }
+
+    public static void write(InformationResponseDTO dto, OutputStream out) throws IOException {
+        Chunk chunk = new Chunk(out);
+        chunk.raw(NOTIFICATION);
+        chunk.string(dto.getNotification());
+        chunk.raw(MESSAGE);
+        chunk.string(dto.getMessage());
+        chunk.raw(FORWARDED_PROTO);
+        chunk.string(dto.getX_Forwarded_Proto());
+        chunk.raw(FORWARDED_FOR);
+        chunk.string(dto.getX_Forwarded_For());
+        chunk.raw('}');
+        chunk.flush();
+    }
+
+    /**
+     *
+     * @param type a response body type
+     * @return true if one of the writers here handles it
+     */
+    public static boolean supports(Class<?> type) {
+        return type == MessageDTO.class
+                || type == UserInfoDTO.class
+                || type == TokenDTO.class
+                || type == InformationResponseDTO.class;
+    }
+
+    /**
+     *
+     * @param dto a body whose type {@link #supports(Class)} accepts
+     * @param out where the JSON goes
+     */
+    public static void write(Object dto, OutputStream out) throws IOException {
+        switch (dto) {
+            case MessageDTO message -> write(message, out);
+            case UserInfoDTO userInfo -> write(userInfo, out);
+            case TokenDTO token -> write(token, out);
+            case InformationResponseDTO information -> write(information, out);
+            default -> throw new IllegalArgumentException("No JSON writer for " + dto.getClass().getName());
+        }
+    }
+
+    /**
+     * Collects encoded bytes so the output stream sees a few bulk writes per response instead of one call per
+     * byte, which on the servlet stream and most others costs a lock or a state check each time.
+     */
+    private static final class Chunk {
+
+        private final OutputStream out;
+        private final byte[] buffer = new byte[CHUNK];
+        private int position;
+
+        private Chunk(OutputStream out) {
+            this.out = out;
+        }
+
+        private void raw(byte[] bytes) throws IOException {
+            if (position + bytes.length > CHUNK) {
+                flush();
+            }
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        private void raw(int b) throws IOException {
+            if (position == CHUNK) {
+                flush();
+            }
+            buffer[position++] = (byte) b;
+        }
+
+        /**
+         * Writes a quoted, escaped JSON string as UTF-8, or {@code null}.
+         */
+        private void string(String value) throws IOException {
+            if (value == null) {
+                raw(NULL);
+                return;
+            }
+
+            raw('"');
+            int length = value.length();
+            for (int i = 0; i < length; i++) {
+                /* room for the longest thing one char can become, a six byte unicode escape */
+                if (position > CHUNK - 6) {
+                    flush();
+                }
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    if (c >= 0x20 && c != '"' && c != '\\') {
+                        buffer[position++] = (byte) c;
+                    } else {
+                        escape(c);
+                    }
+                } else if (c < 0x800) {
+                    buffer[position++] = (byte) (0xC0 | c >> 6);
+                    buffer[position++] = (byte) (0x80 | c & 0x3F);
+                } else if (!Character.isSurrogate(c)) {
+                    buffer[position++] = (byte) (0xE0 | c >> 12);
+                    buffer[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                    buffer[position++] = (byte) (0x80 | c & 0x3F);
+                } else {
+                    /* Jackson escapes each half of a surrogate pair rather than writing 4 UTF-8 bytes */
+                    unicodeEscape(c);
+                }
+            }
+            raw('"');
+        }
+
+        private void escape(char c) {
+            buffer[position++] = '\\';
+            switch (c) {
+                case '"', '\\' -> buffer[position++] = (byte) c;
+                case '\b' -> buffer[position++] = 'b';
+                case '\t' -> buffer[position++] = 't';
+                case '\n' -> buffer[position++] = 'n';
+                case '\f' -> buffer[position++] = 'f';
+                case '\r' -> buffer[position++] = 'r';
+                default -> {
+                    buffer[position++] = 'u';
+                    buffer[position++] = '0';
+                    buffer[position++] = '0';
+                    buffer[position++] = HEX[c >> 4];
+                    buffer[position++] = HEX[c & 0xF];
+                }
+            }
+        }
+
+        private void unicodeEscape(char c) {
+            buffer[position++] = '\\';
+            buffer[position++] = 'u';
+            buffer[position++] = HEX[c >> 12];
+            buffer[position++] = HEX[c >> 8 & 0xF];
+            buffer[position++] = HEX[c >> 4 & 0xF];
+            buffer[position++] = HEX[c & 0xF];
+        }
+
+        private void flush() throws IOException {
+            if (position > 0) {
+                out.write(buffer, 0, position);
+                position = 0;
+            }
+        }
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
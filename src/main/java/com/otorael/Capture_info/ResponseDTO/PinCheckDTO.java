@@ -0,0 +1,45 @@
+package com.otorael.Capture_info.ResponseDTO;
+
+public class PinCheckDTO {
+
+    private String pin;
+    private int rank;
+    private String verdict;
+
+    /**
+     *
+     * @param pin the PIN that was checked
+     * @param rank popularity rank starting at 1, 0 if the PIN is not in the list
+     * @param verdict weak or strong
+     *
+     */
+    public PinCheckDTO(String pin, int rank, String verdict) {
+        this.pin = pin;
+        this.rank = rank;
+        this.verdict = verdict;
+    }
+
+    public String getPin() {
+        return pin;
+    }
+
+    public void setPin(String pin) {
+        this.pin = pin;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public void setRank(int rank) {
+        this.rank = rank;
+    }
+
+    public String getVerdict() {
+        return verdict;
+    }
+
+    public void setVerdict(String verdict) {
+        this.verdict = verdict;
+    }
+}
@@ -0,0 +1,56 @@
+package com.otorael.Capture_info.ResponseDTO;
+
+public class TokenDTO {
+
+    private String notification;
+    private String token;
+    private String refreshToken;
+    private String message;
+
+    /**
+     *
+     * @param notification THROWS quick success notifications
+     * @param token the new access token
+     * @param refreshToken the new refresh token, the old one is no longer valid
+     * @param message Shows description message for the response
+     *
+     */
+    public TokenDTO(String notification, String token, String refreshToken, String message) {
+        this.notification = notification;
+        this.token = token;
+        this.refreshToken = refreshToken;
+        this.message = message;
+    }
+
+    public String getNotification() {
+        return notification;
+    }
+
+    public void setNotification(String notification) {
+        this.notification = notification;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,45 @@
+package com.otorael.Capture_info.ResponseDTO;
+
+public class TrafficCountDTO {
+
+    private String key;
+    private long hits;
+    private double ratePerSecond;
+
+    /**
+     *
+     * @param key the client address or protocol
+     * @param hits estimated hits in the window, may overcount but never undercounts
+     * @param ratePerSecond hits spread over the time the window actually covers
+     *
+     */
+    public TrafficCountDTO(String key, long hits, double ratePerSecond) {
+        this.key = key;
+        this.hits = hits;
+        this.ratePerSecond = ratePerSecond;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+
+    public double getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    public void setRatePerSecond(double ratePerSecond) {
+        this.ratePerSecond = ratePerSecond;
+    }
+}
@@ -0,0 +1,86 @@
+package com.otorael.Capture_info.ResponseDTO;
+
+import java.util.List;
+
+public class TrafficDTO {
+
+    private String notification;
+    private long windowSeconds;
+    private long totalHits;
+    private double ratePerSecond;
+    private List<TrafficCountDTO> counts;
+    private String message;
+
+    /**
+     *
+     * @param notification THROWS quick success notifications
+     * @param windowSeconds how much time the counts cover, shorter than asked right after startup
+     * @param totalHits every capture in the window
+     * @param ratePerSecond totalHits spread over the window
+     * @param counts per address or per protocol counts, busiest first
+     * @param message Shows description message for the response
+     *
+     */
+    public TrafficDTO(String notification,
+                      long windowSeconds,
+                      long totalHits,
+                      double ratePerSecond,
+                      List<TrafficCountDTO> counts,
+                      String message)
+    {
+        this.notification = notification;
+        this.windowSeconds = windowSeconds;
+        this.totalHits = totalHits;
+        this.ratePerSecond = ratePerSecond;
+        this.counts = counts;
+        this.message = message;
+    }
+
+    public String getNotification() {
+        return notification;
+    }
+
+    public void setNotification(String notification) {
+        this.notification = notification;
+    }
+
+    public long getWindowSeconds() {
+        return windowSeconds;
+    }
+
+    public void setWindowSeconds(long windowSeconds) {
+        this.windowSeconds = windowSeconds;
+    }
+
+    public long getTotalHits() {
+        return totalHits;
+    }
+
+    public void setTotalHits(long totalHits) {
+        this.totalHits = totalHits;
+    }
+
+    public double getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    public void setRatePerSecond(double ratePerSecond) {
+        this.ratePerSecond = ratePerSecond;
+    }
+
+    public List<TrafficCountDTO> getCounts() {
+        return counts;
+    }
+
+    public void setCounts(List<TrafficCountDTO> counts) {
+        this.counts = counts;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -7,6 +7,7 @@ public class UserInfoDTO {
     private String lastName;
     private String email;
     private String token;
+    private String refreshToken;
     private String message;
 
 
@@ -15,6 +16,7 @@ public class UserInfoDTO {
                        String lastName,
                        String email,
                        String token,
+                       String refreshToken,
                        String message)
     {
         this.notification = notification;
@@ -22,6 +24,7 @@ public class UserInfoDTO {
         this.lastName = lastName;
         this.email = email;
         this.token = token;
+        this.refreshToken = refreshToken;
         this.message = message;
     }
 
@@ -33,6 +36,14 @@ public class UserInfoDTO {
         this.token = token;
     }
 
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
     public String getMessage() {
         return message;
     }
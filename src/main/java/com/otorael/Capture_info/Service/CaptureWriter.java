@@ -0,0 +1,36 @@
+package com.otorael.Capture_info.Service;
+
+import com.otorael.Capture_info.Model.InformationModel;
+
+/**
+ * <p>
+ *     Accepts captured request information and persists it off the request thread.
+ * </p>
+ */
+public interface CaptureWriter {
+
+    /**
+     * What to do when the in-memory queue is full.
+     */
+    enum OverflowPolicy {
+        /** discard the new row straight away and count it as dropped */
+        DROP,
+        /** wait up to the configured timeout for space, then drop */
+        BLOCK
+    }
+
+    /**
+     *
+     * @param informationModel the captured row to persist
+     * @return true if the row was queued, false if it was dropped
+     */
+    boolean submit(InformationModel informationModel);
+
+    long queueDepth();
+    long rowsWritten();
+    long rowsDropped();
+    long rowsFailed();
+    long flushCount();
+    long lastFlushNanos();
+    long totalFlushNanos();
+}
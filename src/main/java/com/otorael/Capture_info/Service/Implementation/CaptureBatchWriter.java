@@ -0,0 +1,246 @@
+package com.otorael.Capture_info.Service.Implementation;
+
+import com.otorael.Capture_info.Model.InformationModel;
+import com.otorael.Capture_info.Service.CaptureWriter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes captured request information to {@code information_captured} in JDBC batches.
+ * <p>
+ *     Request threads only put rows on a bounded queue. A single background thread drains the queue and
+ *     flushes a batch once it reaches {@code capture.writer.batch-size} rows or once
+ *     {@code capture.writer.flush-interval-ms} has passed since the first row of the batch arrived.
+ *     Rows get their id from {@link CaptureIdGenerator} as they are flushed, so a batch never waits on
+ *     generated keys.
+ * </p>
+ *
+ * @author otorael
+ */
+@Service
+public class CaptureBatchWriter implements CaptureWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(CaptureBatchWriter.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO information_captured (id, client_address, protocol, captured_at) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CaptureIdGenerator captureIdGenerator;
+    private final BlockingQueue<InformationModel> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutMillis;
+
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private final AtomicLong rowsDropped = new AtomicLong();
+    private final AtomicLong rowsFailed = new AtomicLong();
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong lastFlushNanos = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public CaptureBatchWriter(
+            JdbcTemplate jdbcTemplate,
+            CaptureIdGenerator captureIdGenerator,
+            @Value("${capture.writer.queue-capacity:10000}") int queueCapacity,
+            @Value("${capture.writer.batch-size:500}") int batchSize,
+            @Value("${capture.writer.flush-interval-ms:200}") long flushIntervalMillis,
+            @Value("${capture.writer.overflow-policy:drop}") String overflowPolicy,
+            @Value("${capture.writer.block-timeout-ms:50}") long blockTimeoutMillis
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.captureIdGenerator = captureIdGenerator;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.overflowPolicy = OverflowPolicy.valueOf(overflowPolicy.trim().toUpperCase(Locale.ROOT));
+        this.blockTimeoutMillis = blockTimeoutMillis;
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        worker = new Thread(this::drainLoop, "capture-writer");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("Capture writer started - batch size: {}, overflow policy: {}", batchSize, overflowPolicy);
+    }
+
+    /**
+     * Stops accepting new work and flushes whatever is still queued before the datasource goes away.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    @Override
+    public boolean submit(InformationModel informationModel) {
+        if (!running) {
+            rowsDropped.incrementAndGet();
+            return false;
+        }
+
+        boolean queued;
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            try {
+                queued = queue.offer(informationModel, blockTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                queued = false;
+            }
+        } else {
+            queued = queue.offer(informationModel);
+        }
+
+        /*
+         * stop() may have come in since the check above and the writer may already be past its final drain.
+         * Take the row back in that case, it would sit in the queue unwritten and uncounted. If the writer
+         * got to it first, it is written.
+         */
+        if (queued && !running && queue.remove(informationModel)) {
+            queued = false;
+        }
+        if (!queued) {
+            rowsDropped.incrementAndGet();
+        }
+        return queued;
+    }
+
+    private void drainLoop() {
+        List<InformationModel> batch = new ArrayList<>(batchSize);
+
+        while (running) {
+            try {
+                fillBatch(batch);
+            } catch (InterruptedException e) {
+                /* stop() interrupts us, the remaining rows are flushed below */
+            }
+            flush(batch);
+        }
+
+        while (!queue.isEmpty()) {
+            queue.drainTo(batch, batchSize);
+            flush(batch);
+        }
+        log.info("Capture writer stopped - rows written: {}, rows dropped: {}", rowsWritten.get(), rowsDropped.get());
+    }
+
+    /**
+     * Blocks for the first row, then keeps collecting until the batch is full or the flush interval is up.
+     */
+    private void fillBatch(List<InformationModel> batch) throws InterruptedException {
+        InformationModel first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                return;
+            }
+            InformationModel next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<InformationModel> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (statement, row) -> {
+                if (row.getId() == null) {
+                    row.setId(captureIdGenerator.next());
+                }
+                statement.setLong(1, row.getId());
+                statement.setBytes(2, row.getClientAddress());
+                if (row.getProtocol() != null) {
+                    statement.setByte(3, (byte) row.getProtocol().ordinal());
+                } else {
+                    statement.setNull(3, Types.TINYINT);
+                }
+                statement.setTimestamp(4, Timestamp.from(row.getCapturedAt()));
+            });
+            rowsWritten.addAndGet(batch.size());
+        } catch (RuntimeException e) {
+            rowsFailed.addAndGet(batch.size());
+            log.error("Capture batch of {} rows failed - Error type: {} - Message: {}",
+                    batch.size(),
+                    e.getClass().getSimpleName(),
+                    e.getMessage()
+            );
+        } finally {
+            long elapsed = System.nanoTime() - started;
+            lastFlushNanos.set(elapsed);
+            totalFlushNanos.addAndGet(elapsed);
+            flushCount.incrementAndGet();
+            batch.clear();
+        }
+    }
+
+    @Override
+    public long queueDepth() {
+        return queue.size();
+    }
+
+    @Override
+    public long rowsWritten() {
+        return rowsWritten.get();
+    }
+
+    @Override
+    public long rowsDropped() {
+        return rowsDropped.get();
+    }
+
+    @Override
+    public long rowsFailed() {
+        return rowsFailed.get();
+    }
+
+    @Override
+    public long flushCount() {
+        return flushCount.get();
+    }
+
+    @Override
+    public long lastFlushNanos() {
+        return lastFlushNanos.get();
+    }
+
+    @Override
+    public long totalFlushNanos() {
+        return totalFlushNanos.get();
+    }
+}
@@ -0,0 +1,230 @@
+package com.otorael.Capture_info.Service.Implementation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps {@code information_captured} split into one partition per UTC day and enforces retention by dropping
+ * whole partitions, which is a metadata change instead of a delete that walks and logs every expired row.
+ * <p>
+ *     On MySQL the table is range partitioned on {@code captured_at} the first time this runs, with the primary
+ *     key widened to {@code (id, captured_at)} as MySQL requires the partitioning column in every unique key.
+ *     Each run then makes sure the next {@code capture.retention.partitions-ahead-days} days have a partition,
+ *     split out of the catch-all {@code pmax}, and drops partitions that ended more than
+ *     {@code capture.retention.days} ago. Time range queries only touch the partitions they overlap.
+ * </p>
+ * <p>
+ *     Every node runs this at startup and on schedule, so on MySQL a run first takes the server-wide named lock
+ *     {@value #LOCK}; a node that finds it held skips the run instead of racing the holder's ALTER TABLE. The
+ *     day bounds are UTC, which assumes the connection writes {@code captured_at} in UTC
+ *     ({@code connectionTimeZone=UTC} in the prod profile).
+ * </p>
+ * <p>
+ *     Other databases, e.g. H2 in the load test, have no partitions here and fall back to deleting expired rows.
+ * </p>
+ */
+@Component
+public class CapturePartitionManager {
+
+    private static final Logger log = LoggerFactory.getLogger(CapturePartitionManager.class);
+
+    private static final String TABLE = "information_captured";
+    private static final String CATCH_ALL = "pmax";
+    private static final String LOCK = "capture_partition_maintenance";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'uuuuMMdd");
+    private static final DateTimeFormatter BOUND = DateTimeFormatter.ofPattern("uuuu-MM-dd");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int retentionDays;
+    private final int partitionsAheadDays;
+    /** the startup run and the scheduled one must not alter the table at the same time */
+    private final ReentrantLock maintenanceLock = new ReentrantLock();
+
+    private Boolean mysql;
+
+    public CapturePartitionManager(
+            JdbcTemplate jdbcTemplate,
+            @Value("${capture.retention.days:30}") int retentionDays,
+            @Value("${capture.retention.partitions-ahead-days:3}") int partitionsAheadDays
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.retentionDays = retentionDays;
+        this.partitionsAheadDays = partitionsAheadDays;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    /**
+     * Adds upcoming partitions and drops expired ones.
+     */
+    @Scheduled(
+            fixedDelayString = "${capture.retention.interval-ms:3600000}",
+            initialDelayString = "${capture.retention.interval-ms:3600000}"
+    )
+    public void maintain() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate cutoff = today.minusDays(retentionDays);
+
+        maintenanceLock.lock();
+        try {
+            if (!isMySql()) {
+                int deleted = jdbcTemplate.update(
+                        "DELETE FROM " + TABLE + " WHERE captured_at < ?",
+                        Timestamp.from(cutoff.atStartOfDay(ZoneOffset.UTC).toInstant())
+                );
+                log.debug("Capture retention deleted {} rows captured before {}", deleted, cutoff);
+                return;
+            }
+
+            /* GET_LOCK belongs to the connection, so the whole run goes through the one that holds it */
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                JdbcTemplate locked = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+                if (!Integer.valueOf(1).equals(locked.queryForObject("SELECT GET_LOCK(?, 0)", Integer.class, LOCK))) {
+                    log.debug("Capture partition maintenance skipped, another node holds {}", LOCK);
+                    return null;
+                }
+                try {
+                    maintainPartitions(locked, today, cutoff);
+                } finally {
+                    locked.queryForObject("SELECT RELEASE_LOCK(?)", Integer.class, LOCK);
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.error("Capture partition maintenance failed - Error type: {} - Message: {}",
+                    e.getClass().getSimpleName(),
+                    e.getMessage()
+            );
+        } finally {
+            maintenanceLock.unlock();
+        }
+    }
+
+    private void maintainPartitions(JdbcTemplate jdbcTemplate, LocalDate today, LocalDate cutoff) {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT partition_name FROM information_schema.partitions"
+                        + " WHERE table_schema = DATABASE() AND table_name = ? AND partition_name IS NOT NULL"
+                        + " ORDER BY partition_ordinal_position",
+                String.class,
+                TABLE
+        );
+
+        if (partitions.isEmpty()) {
+            partitionTable(jdbcTemplate, today);
+            return;
+        }
+        addUpcoming(jdbcTemplate, partitions, today);
+        dropExpired(jdbcTemplate, partitions, cutoff);
+    }
+
+    private void partitionTable(JdbcTemplate jdbcTemplate, LocalDate today) {
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PRIMARY KEY, ADD PRIMARY KEY (id, captured_at)");
+
+        List<String> definitions = new ArrayList<>();
+        for (int day = 0; day <= partitionsAheadDays; day++) {
+            definitions.add(definition(today.plusDays(day)));
+        }
+        definitions.add(catchAll());
+
+        /* rows already in the table are older than tomorrow and land in today's partition */
+        jdbcTemplate.execute("ALTER TABLE " + TABLE
+                + " PARTITION BY RANGE COLUMNS(captured_at) (" + String.join(", ", definitions) + ")");
+        log.info("Partitioned {} by day, {} days ahead", TABLE, partitionsAheadDays);
+    }
+
+    private void addUpcoming(JdbcTemplate jdbcTemplate, List<String> partitions, LocalDate today) {
+        LocalDate last = null;
+        for (String partition : partitions) {
+            LocalDate day = day(partition);
+            if (day != null && (last == null || day.isAfter(last))) {
+                last = day;
+            }
+        }
+
+        /* new partitions can only go after the newest one, they are split off the catch-all */
+        LocalDate from = last == null ? today : last.plusDays(1);
+        List<String> definitions = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(today.plusDays(partitionsAheadDays)); day = day.plusDays(1)) {
+            definitions.add(definition(day));
+        }
+        if (definitions.isEmpty()) {
+            return;
+        }
+        definitions.add(catchAll());
+
+        jdbcTemplate.execute("ALTER TABLE " + TABLE
+                + " REORGANIZE PARTITION " + CATCH_ALL + " INTO (" + String.join(", ", definitions) + ")");
+        log.info("Added {} capture partitions from {}", definitions.size() - 1, from);
+    }
+
+    private void dropExpired(JdbcTemplate jdbcTemplate, List<String> partitions, LocalDate cutoff) {
+        List<String> expired = new ArrayList<>();
+        for (String partition : partitions) {
+            LocalDate day = day(partition);
+            /* a partition holds one day, it has expired once the whole day is before the cutoff */
+            if (day != null && !day.plusDays(1).isAfter(cutoff)) {
+                expired.add(partition);
+            }
+        }
+        if (expired.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PARTITION " + String.join(", ", expired));
+        log.info("Dropped {} expired capture partitions, oldest {}", expired.size(), expired.get(0));
+    }
+
+    private boolean isMySql() {
+        if (mysql == null) {
+            mysql = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("mysql")));
+        }
+        return mysql;
+    }
+
+    private static String definition(LocalDate day) {
+        return "PARTITION " + PARTITION_NAME.format(day)
+                + " VALUES LESS THAN ('" + BOUND.format(day.plusDays(1)) + " 00:00:00')";
+    }
+
+    private static String catchAll() {
+        return "PARTITION " + CATCH_ALL + " VALUES LESS THAN (MAXVALUE)";
+    }
+
+    /**
+     *
+     * @param partition a partition name
+     * @return the day a pYYYYMMDD partition holds, null for the catch-all or anything else
+     */
+    private static LocalDate day(String partition) {
+        if (partition.length() != 9 || partition.charAt(0) != 'p') {
+            return null;
+        }
+        try {
+            return LocalDate.parse(partition, PARTITION_NAME);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.otorael.Capture_info.Service.Implementation;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A count-min sketch over strings: {@code depth} rows of {@code width} counters, each row indexed by its own hash.
+ * <p>
+ *     A key's estimate is the smallest of its counters, so it can only overcount, by at most about
+ *     {@code 2 * total / width} with probability {@code 1 - 2^-depth}. Counters are atomic, so any number of
+ *     threads can add at once without locking. Sketches with the same shape are merged by summing counters.
+ * </p>
+ */
+final class CountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final int mask;
+    private final AtomicLongArray counters;
+
+    /**
+     *
+     * @param depth number of hash rows
+     * @param width counters per row, rounded up to a power of two
+     */
+    CountMinSketch(int depth, int width) {
+        this.depth = depth;
+        this.width = Integer.highestOneBit(Math.max(2, width - 1)) << 1;
+        this.mask = this.width - 1;
+        this.counters = new AtomicLongArray(depth * this.width);
+    }
+
+    /**
+     *
+     * @param key the key to count
+     * @return the key's estimate including this hit
+     */
+    long add(String key) {
+        long hash = hash(key);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(index(hash, row)));
+        }
+        return estimate;
+    }
+
+    /**
+     *
+     * @param merged counters summed from one or more sketches by {@link #addTo(long[])}
+     * @param key the key to look up
+     * @return the key's estimate in the merged counters
+     */
+    long estimate(long[] merged, String key) {
+        long hash = hash(key);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, merged[index(hash, row)]);
+        }
+        return estimate;
+    }
+
+    /**
+     *
+     * @param merged an array of {@link #size()} counters to add this sketch's counters to
+     */
+    void addTo(long[] merged) {
+        for (int i = 0; i < merged.length; i++) {
+            merged[i] += counters.get(i);
+        }
+    }
+
+    int size() {
+        return counters.length();
+    }
+
+    private int index(long hash, int row) {
+        /*
+         * every row re-mixes the key hash with its own seed, so two keys that share a counter in one row
+         * are no more likely to share one in the next
+         */
+        return row * width + ((int) mix(hash + (row + 1) * 0x9e3779b97f4a7c15L) & mask);
+    }
+
+    private static long hash(String key) {
+        /* FNV-1a over the UTF-8 bytes */
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
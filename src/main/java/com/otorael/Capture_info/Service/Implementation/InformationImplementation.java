@@ -1,28 +1,82 @@
 package com.otorael.Capture_info.Service.Implementation;
 
+import com.otorael.Capture_info.Model.CaptureProtocol;
 import com.otorael.Capture_info.Model.InformationModel;
+import com.otorael.Capture_info.Network.IpAddresses;
 import com.otorael.Capture_info.Repository.InformationRepository;
 import com.otorael.Capture_info.Service.Information;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@Transactional(readOnly = true)
 public class InformationImplementation implements Information {
 
+    /**
+     * Upper bound for a single page, whatever the caller asks for.
+     */
+    static final int MAX_PAGE_SIZE = 1000;
+
     private final InformationRepository informationRepository;
+    private final EntityManager entityManager;
 
-    public InformationImplementation(InformationRepository informationRepository) {
+    public InformationImplementation(InformationRepository informationRepository, EntityManager entityManager) {
         this.informationRepository = informationRepository;
+        this.entityManager = entityManager;
     }
 
     @Override
-    public InformationModel getIpAddress() {
-        informationRepository.findAll();
-        return null;
+    public List<InformationModel> findByIpAddress(String ipAddress, Long afterId, int limit) {
+        byte[] address = IpAddresses.parse(ipAddress);
+        if (address == null) {
+            return List.of();
+        }
+        return informationRepository.findPageByClientAddress(address, startAfter(afterId), Limit.of(pageSize(limit)));
+    }
+
+    @Override
+    public List<InformationModel> findByProtocol(String protocol, Long afterId, int limit) {
+        CaptureProtocol captureProtocol = CaptureProtocol.of(protocol);
+        if (captureProtocol == null) {
+            return List.of();
+        }
+        return informationRepository.findPageByProtocol(captureProtocol, startAfter(afterId), Limit.of(pageSize(limit)));
+    }
+
+    @Override
+    public List<InformationModel> findByCapturedAt(Instant from, Instant to, Instant afterCapturedAt, Long afterId, int limit) {
+        /* the first page seeks to just before "from" so rows captured exactly at "from" are included */
+        if (afterCapturedAt == null || afterCapturedAt.isBefore(from)) {
+            afterCapturedAt = from;
+            afterId = null;
+        }
+        return informationRepository.findPageByCapturedAt(afterCapturedAt, startAfter(afterId), to, Limit.of(pageSize(limit)));
+    }
+
+    @Override
+    public void streamByCapturedAt(Instant from, Instant to, Consumer<InformationModel> consumer) {
+        try (Stream<InformationModel> captures = informationRepository.streamByCapturedAt(from, to)) {
+            captures.forEach(capture -> {
+                consumer.accept(capture);
+                /* detach straight away so the persistence context does not grow with the result */
+                entityManager.detach(capture);
+            });
+        }
+    }
+
+    private static long startAfter(Long afterId) {
+        return afterId == null ? Long.MIN_VALUE : afterId;
     }
 
     @Override
-    public InformationModel getProtocol() {
-        informationRepository.findAll();
-        return null;
+    public int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
     }
 }
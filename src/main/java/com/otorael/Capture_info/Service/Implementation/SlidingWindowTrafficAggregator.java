@@ -0,0 +1,256 @@
+package com.otorael.Capture_info.Service.Implementation;
+
+import com.otorael.Capture_info.Service.TrafficAggregator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sliding-window traffic counts kept in a ring of time slots.
+ * <p>
+ *     Each slot covers {@code traffic.slot-ms} and holds a {@link CountMinSketch} of hits per address, exact
+ *     per-protocol counters (there are only a handful of protocols) and a bounded set of heavy-hitter
+ *     candidates. The ring keeps {@code traffic.slots} slots, so memory stays fixed however many distinct
+ *     addresses show up, and the longest window is {@code slots * slot-ms}.
+ * </p>
+ * <p>
+ *     Recording a hit is lock-free unless the address is about to enter a slot's candidate set. A query sums
+ *     the sketches of the slots in its window, re-estimates every candidate against the sum and keeps the
+ *     busiest in a min-heap of the requested size.
+ * </p>
+ *
+ * @author otorael
+ */
+@Service
+public class SlidingWindowTrafficAggregator implements TrafficAggregator {
+
+    private static final Comparator<Count> BY_HITS = Comparator.comparingLong(Count::hits);
+
+    private final long slotMillis;
+    private final int sketchDepth;
+    private final int sketchWidth;
+    private final int candidates;
+
+    private final AtomicReferenceArray<Slot> ring;
+    private volatile int head;
+
+    public SlidingWindowTrafficAggregator(
+            @Value("${traffic.slot-ms:10000}") long slotMillis,
+            @Value("${traffic.slots:60}") int slots,
+            @Value("${traffic.sketch.depth:4}") int sketchDepth,
+            @Value("${traffic.sketch.width:2048}") int sketchWidth,
+            @Value("${traffic.top-k:100}") int candidates
+    ) {
+        this.slotMillis = slotMillis;
+        this.sketchDepth = sketchDepth;
+        this.sketchWidth = sketchWidth;
+        this.candidates = candidates;
+        this.ring = new AtomicReferenceArray<>(slots);
+        this.ring.set(0, newSlot(System.currentTimeMillis()));
+    }
+
+    /**
+     * Starts a new slot, dropping the oldest once the ring is full.
+     */
+    @Scheduled(fixedRateString = "${traffic.slot-ms:10000}", initialDelayString = "${traffic.slot-ms:10000}")
+    public void rotate() {
+        int next = (head + 1) % ring.length();
+        ring.set(next, newSlot(System.currentTimeMillis()));
+        head = next;
+    }
+
+    @Override
+    public void record(String ipAddress, String protocol) {
+        Slot slot = ring.get(head);
+        slot.total.increment();
+
+        if (protocol != null) {
+            slot.protocols.computeIfAbsent(protocol, ignored -> new LongAdder()).increment();
+        }
+        if (ipAddress != null) {
+            slot.offer(ipAddress, slot.sketch.add(ipAddress));
+        }
+    }
+
+    @Override
+    public List<Count> topTalkers(long windowMillis, int limit) {
+        List<Slot> slots = slotsWithin(windowMillis);
+        long[] merged = merge(slots);
+        CountMinSketch shape = slots.get(0).sketch;
+
+        Set<String> seen = new HashSet<>();
+        PriorityQueue<Count> top = new PriorityQueue<>(BY_HITS);
+        for (Slot slot : slots) {
+            for (String ipAddress : slot.candidates.keySet()) {
+                if (!seen.add(ipAddress)) {
+                    continue;
+                }
+                top.add(new Count(ipAddress, shape.estimate(merged, ipAddress)));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+
+        List<Count> busiestFirst = new ArrayList<>(top);
+        busiestFirst.sort(BY_HITS.reversed());
+        return busiestFirst;
+    }
+
+    @Override
+    public long hits(String ipAddress, long windowMillis) {
+        List<Slot> slots = slotsWithin(windowMillis);
+        return slots.get(0).sketch.estimate(merge(slots), ipAddress);
+    }
+
+    @Override
+    public List<Count> protocols(long windowMillis) {
+        Map<String, Long> hits = new HashMap<>();
+        for (Slot slot : slotsWithin(windowMillis)) {
+            slot.protocols.forEach((protocol, count) -> hits.merge(protocol, count.sum(), Long::sum));
+        }
+        return hits.entrySet().stream()
+                .map(entry -> new Count(entry.getKey(), entry.getValue()))
+                .sorted(BY_HITS.reversed())
+                .toList();
+    }
+
+    @Override
+    public long totalHits(long windowMillis) {
+        long total = 0;
+        for (Slot slot : slotsWithin(windowMillis)) {
+            total += slot.total.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public long coveredMillis(long windowMillis) {
+        List<Slot> slots = slotsWithin(windowMillis);
+        long oldest = slots.get(slots.size() - 1).startedAtMillis;
+        return Math.max(1, System.currentTimeMillis() - oldest);
+    }
+
+    @Override
+    public long maxWindowMillis() {
+        return slotMillis * ring.length();
+    }
+
+    @Override
+    public int maxTalkers() {
+        return candidates;
+    }
+
+    /**
+     *
+     * @param windowMillis how far back to look
+     * @return the current slot followed by older ones that started inside the window, never empty
+     */
+    private List<Slot> slotsWithin(long windowMillis) {
+        int current = head;
+        long since = System.currentTimeMillis() - Math.min(windowMillis, maxWindowMillis());
+
+        List<Slot> slots = new ArrayList<>();
+        slots.add(ring.get(current));
+        for (int i = 1; i < ring.length(); i++) {
+            Slot slot = ring.get(Math.floorMod(current - i, ring.length()));
+            /* a slot that ended inside the window still counts, the window edge falls somewhere inside it */
+            if (slot == null || slot.startedAtMillis + slotMillis <= since) {
+                break;
+            }
+            slots.add(slot);
+        }
+        return slots;
+    }
+
+    private long[] merge(List<Slot> slots) {
+        long[] merged = new long[slots.get(0).sketch.size()];
+        for (Slot slot : slots) {
+            slot.sketch.addTo(merged);
+        }
+        return merged;
+    }
+
+    private Slot newSlot(long startedAtMillis) {
+        return new Slot(startedAtMillis, new CountMinSketch(sketchDepth, sketchWidth), candidates);
+    }
+
+    /**
+     * Counts for one slot of the ring.
+     */
+    private static final class Slot {
+
+        private final long startedAtMillis;
+        private final CountMinSketch sketch;
+        private final int capacity;
+        private final LongAdder total = new LongAdder();
+        private final Map<String, LongAdder> protocols = new ConcurrentHashMap<>();
+
+        /**
+         * Addresses that may be among the busiest in this slot, with their estimate when last seen.
+         */
+        private final Map<String, Long> candidates = new ConcurrentHashMap<>();
+
+        /**
+         * Smallest estimate in a full candidate set, an address must beat it to get in.
+         */
+        private volatile long admissionFloor;
+
+        /** serialises admissions into a full candidate set, a lock rather than a monitor so it never pins */
+        private final ReentrantLock admissionLock = new ReentrantLock();
+
+        private Slot(long startedAtMillis, CountMinSketch sketch, int capacity) {
+            this.startedAtMillis = startedAtMillis;
+            this.sketch = sketch;
+            this.capacity = capacity;
+        }
+
+        private void offer(String ipAddress, long estimate) {
+            if (candidates.replace(ipAddress, estimate) != null) {
+                return;
+            }
+            if (estimate <= admissionFloor) {
+                return;
+            }
+            admissionLock.lock();
+            try {
+                candidates.put(ipAddress, estimate);
+                if (candidates.size() <= capacity) {
+                    return;
+                }
+
+                /* drop the weakest candidate and raise the floor to the next weakest */
+                String weakest = null;
+                long weakestHits = Long.MAX_VALUE;
+                long floor = Long.MAX_VALUE;
+                for (Map.Entry<String, Long> entry : candidates.entrySet()) {
+                    long hits = entry.getValue();
+                    if (hits < weakestHits) {
+                        floor = weakestHits;
+                        weakestHits = hits;
+                        weakest = entry.getKey();
+                    } else if (hits < floor) {
+                        floor = hits;
+                    }
+                }
+                candidates.remove(weakest);
+                admissionFloor = floor;
+            } finally {
+                admissionLock.unlock();
+            }
+        }
+    }
+}
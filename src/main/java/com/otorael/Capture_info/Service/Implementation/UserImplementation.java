@@ -1,14 +1,25 @@
 package com.otorael.Capture_info.Service.Implementation;
 
+import com.otorael.Capture_info.Authentication.PasswordHashingExecutor;
+import com.otorael.Capture_info.Configuration.CaptureMetrics;
+import com.otorael.Capture_info.Configuration.ReplicaRoutingDataSource;
 import com.otorael.Capture_info.Model.UserModel;
 import com.otorael.Capture_info.Repository.UsersRepository;
 import com.otorael.Capture_info.Service.UserService;
+import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static com.otorael.Capture_info.Configuration.SuccessLogSampler.SUCCESS;
+
 /**
  * Implementation of the UserService interface that handles user registration and authentication.
  * This service manages user operations including registration, login, and password encryption.
@@ -20,13 +31,6 @@ import org.springframework.stereotype.Service;
 @Service
 public class UserImplementation implements UserService {
 
-    /**
-     * Password encoder for secure password hashing.
-     * Autowired from Spring Security configuration.
-     */
-    @Autowired
-    private PasswordEncoder passwordEncoder;
-
     /**
      * Logger instance for this class.
      * Used for logging service operations and errors.
@@ -39,48 +43,120 @@ public class UserImplementation implements UserService {
      */
     private final UsersRepository usersRepository;
 
+    /**
+     * Read-through cache of users by normalized email.
+     */
+    private final UserLookupCache userLookupCache;
+
+    /**
+     * Dedicated pool that runs password hashing off the request threads.
+     */
+    private final PasswordHashingExecutor passwordHashingExecutor;
+
+    /**
+     * Executor for the database work that follows a hash, so it does not occupy a hashing thread.
+     */
+    private final Executor applicationTaskExecutor;
+
+    /**
+     * Timers for the database lookup phase.
+     */
+    private final CaptureMetrics captureMetrics;
+
+    /**
+     * Replica routing, only present when read replicas are configured.
+     */
+    private final ObjectProvider<ReplicaRoutingDataSource> replicaRouting;
+
     /**
      * Constructor for UserImplementation.
      * Initializes the user repository and logs the service creation.
      *
      * @param usersRepository repository for user data operations
+     * @param userLookupCache cache in front of the email lookup
+     * @param passwordHashingExecutor pool for password hashing
+     * @param applicationTaskExecutor executor for work that continues after a hash
+     * @param captureMetrics timers for the database lookup phase
+     * @param replicaRouting replica routing, if read replicas are configured
      */
-    public UserImplementation(UsersRepository usersRepository) {
+    public UserImplementation(
+            UsersRepository usersRepository,
+            UserLookupCache userLookupCache,
+            PasswordHashingExecutor passwordHashingExecutor,
+            @Qualifier("applicationTaskExecutor") Executor applicationTaskExecutor,
+            CaptureMetrics captureMetrics,
+            ObjectProvider<ReplicaRoutingDataSource> replicaRouting
+    ) {
         this.usersRepository = usersRepository;
+        this.userLookupCache = userLookupCache;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.applicationTaskExecutor = applicationTaskExecutor;
+        this.captureMetrics = captureMetrics;
+        this.replicaRouting = replicaRouting;
         log.info("UserImplementation service initialized");
     }
 
     /**
      * Registers a new user in the system.
-     * Checks for existing email, encodes password, and saves user data.
+     * Encodes the password and inserts the user, relying on the unique email constraint to reject
+     * duplicates instead of a separate lookup beforehand.
      *
      * @param userModel the user data to register
-     * @return UserModel the registered user if successful, null if email exists
+     * @return a future of the registered user if successful, null if email exists
      */
     @Override
-    public UserModel registerUser(UserModel userModel) {
+    public CompletableFuture<UserModel> registerUser(UserModel userModel) {
         /* Log the start of registration process */
-        log.info("Processing registration request for email: {}", userModel.getEmail());
+        log.info(SUCCESS, "Processing registration request for email: {}", userModel.getEmail());
 
-        /* Check if user already exists in the database */
-        UserModel attemptingUser = usersRepository.findByEmail(userModel.getEmail());
+        String email = UserLookupCache.normalize(userModel.getEmail());
 
-        /* Process registration if email is not already taken */
-        if (attemptingUser == null || attemptingUser.getEmail().isEmpty()) {
-            /* Encode the password before saving to database */
-            userModel.setPassword(passwordEncoder.encode(userModel.getPassword()));
+        /* A cached user means the email is certainly taken, skip the hashing work */
+        if (userLookupCache.get(email) != null) {
+            log.warn("Registration failed - Email already exists: {}", email);
+            return CompletableFuture.completedFuture(null);
+        }
 
-            /* Save the new user and get the saved entity */
-            UserModel savedUser = usersRepository.save(userModel);
-            log.info("User successfully registered - Email: {}", savedUser.getEmail());
+        /* Encode the password on the hashing pool, then save on the task executor */
+        userModel.setEmail(email);
+        return passwordHashingExecutor.encode(userModel.getPassword()).thenApplyAsync(encodedPassword -> {
+            userModel.setPassword(encodedPassword);
 
-            /* Return the newly created user */
-            return savedUser;
-        } else {
-            /* Log warning if email already exists */
-            log.warn("Registration failed - Email already exists: {}", userModel.getEmail());
-            return null;
+            try {
+                /* Flush straight away so a duplicate email surfaces here as a constraint violation */
+                UserModel savedUser = usersRepository.saveAndFlush(userModel);
+                userLookupCache.put(savedUser);
+                log.info(SUCCESS, "User successfully registered - Email: {}", savedUser.getEmail());
+
+                /* Return the newly created user */
+                return savedUser;
+            } catch (DataIntegrityViolationException e) {
+                /* Any other violation is a failure, not a taken email */
+                if (!isDuplicateEmail(e)) {
+                    throw e;
+                }
+                /* Log warning if email already exists */
+                log.warn("Registration failed - Email already exists: {}", email);
+                return null;
+            }
+        }, applicationTaskExecutor);
+    }
+
+    /**
+     * Whether the violation is the unique email constraint. Drivers report the constraint name differently,
+     * e.g. MySQL prefixes the table and H2 appends the index, so the name is matched as a substring.
+     *
+     * @param e the violation raised by the insert
+     * @return true if the email is already registered
+     */
+    static boolean isDuplicateEmail(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName().toLowerCase(Locale.ROOT).contains(UserModel.EMAIL_CONSTRAINT);
+            }
         }
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(UserModel.EMAIL_CONSTRAINT);
     }
 
     /**
@@ -88,25 +164,77 @@ public class UserImplementation implements UserService {
      * Verifies email exists and password matches.
      *
      * @param userModel the login credentials
-     * @return UserModel the authenticated user if successful, null if authentication fails
+     * @return a future of the authenticated user if successful, null if authentication fails
      */
     @Override
-    public UserModel loginUser(UserModel userModel) {
+    public CompletableFuture<UserModel> loginUser(UserModel userModel) {
         /* Log the start of login process */
-        log.info("Processing login request for email: {}", userModel.getEmail());
-
-        /* Retrieve user from database by email */
-        UserModel loginAttempt = usersRepository.findByEmail(userModel.getEmail());
-
-        /* Verify user exists and password matches */
-        if (loginAttempt != null && passwordEncoder.matches(userModel.getPassword(), loginAttempt.getPassword())) {
-            /* Log successful login */
-            log.info("User successfully logged in - Email: {}", loginAttempt.getEmail());
-            return loginAttempt;
-        } else {
-            /* Log failed login attempt */
+        log.info(SUCCESS, "Processing login request for email: {}", userModel.getEmail());
+
+        /* Retrieve user from the cache, falling back to the database by email */
+        String email = UserLookupCache.normalize(userModel.getEmail());
+        UserModel loginAttempt = userLookupCache.get(email);
+        if (loginAttempt == null) {
+            loginAttempt = captureMetrics.dbLookup().record(() -> usersRepository.findByEmail(email));
+            /* a replica may not have an account registered moments ago yet, ask the primary before failing */
+            if (loginAttempt == null && readsFromReplicas()) {
+                loginAttempt = captureMetrics.dbLookup().record(() ->
+                        ReplicaRoutingDataSource.onPrimary(() -> usersRepository.findByEmail(email)));
+            }
+            if (loginAttempt != null) {
+                userLookupCache.put(loginAttempt);
+            }
+        }
+
+        /* Verify user exists before spending a hash on it */
+        if (loginAttempt == null) {
             log.warn("Login failed - Invalid credentials for email: {}", userModel.getEmail());
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
+
+        /* Verify password matches on the hashing pool */
+        UserModel user = loginAttempt;
+        return passwordHashingExecutor.matches(userModel.getPassword(), user.getPassword()).thenApply(matches -> {
+            if (matches) {
+                /* Log successful login */
+                log.info(SUCCESS, "User successfully logged in - Email: {}", user.getEmail());
+
+                /* Upgrade a hash made under an older cost without delaying the response */
+                if (passwordHashingExecutor.needsRehash(user.getPassword())) {
+                    rehashInBackground(user, userModel.getPassword());
+                }
+                return user;
+            } else {
+                /* Log failed login attempt */
+                log.warn("Login failed - Invalid credentials for email: {}", userModel.getEmail());
+                return null;
+            }
+        });
+    }
+
+    private boolean readsFromReplicas() {
+        ReplicaRoutingDataSource routing = replicaRouting.getIfAvailable();
+        return routing != null && routing.healthyReplicas() > 0;
+    }
+
+    /**
+     * Re-encodes the password with the current cost and stores it, unless it changed in the meantime.
+     * Failures are only logged: the old hash keeps working and the next login tries again.
+     *
+     * @param user the user that just logged in
+     * @param rawPassword the password that was verified
+     */
+    private void rehashInBackground(UserModel user, String rawPassword) {
+        String oldPassword = user.getPassword();
+
+        passwordHashingExecutor.encode(rawPassword).thenAcceptAsync(newPassword -> {
+            if (usersRepository.updatePassword(user.getId(), oldPassword, newPassword) == 1) {
+                userLookupCache.invalidate(UserLookupCache.normalize(user.getEmail()));
+                log.info("Password hash upgraded - Email: {}", user.getEmail());
+            }
+        }, applicationTaskExecutor).exceptionally(e -> {
+            log.debug("Password rehash skipped - Email: {} - Message: {}", user.getEmail(), e.getMessage());
+            return null;
+        });
     }
-}
\ No newline at end of file
+}
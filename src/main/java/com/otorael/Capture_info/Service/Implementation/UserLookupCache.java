@@ -0,0 +1,110 @@
+package com.otorael.Capture_info.Service.Implementation;
+
+import com.otorael.Capture_info.Model.UserModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Read-through cache in front of {@code UsersRepository.findByEmail}, keyed by normalized email.
+ * <p>
+ *     Entries live for {@code users.cache.ttl-ms} so changes made by another node are picked up
+ *     eventually, and the cache never grows past {@code users.cache.max-size}. Only users that exist
+ *     are cached, a miss always goes to the database.
+ * </p>
+ */
+@Component
+public class UserLookupCache {
+
+    private record CachedUser(UserModel user, long expiresAtNanos) {
+    }
+
+    private final Map<String, CachedUser> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final long ttlNanos;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public UserLookupCache(
+            @Value("${users.cache.max-size:10000}") int maxSize,
+            @Value("${users.cache.ttl-ms:300000}") long ttlMillis
+    ) {
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    /**
+     *
+     * @param email an email as typed by the user
+     * @return the email trimmed and lower cased, the form it is stored and cached under
+     */
+    public static String normalize(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     *
+     * @param normalizedEmail an email already passed through {@link #normalize}
+     * @return the cached user or null
+     */
+    public UserModel get(String normalizedEmail) {
+        CachedUser cached = normalizedEmail == null ? null : entries.get(normalizedEmail);
+
+        if (cached == null || cached.expiresAtNanos() - System.nanoTime() <= 0) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return cached.user();
+    }
+
+    /**
+     *
+     * @param user a user just read from or written to the database
+     */
+    public void put(UserModel user) {
+        if (entries.size() >= maxSize) {
+            evict();
+        }
+        entries.put(normalize(user.getEmail()), new CachedUser(user, System.nanoTime() + ttlNanos));
+    }
+
+    /**
+     *
+     * @param normalizedEmail the user whose cached copy is stale
+     */
+    public void invalidate(String normalizedEmail) {
+        entries.remove(normalizedEmail);
+    }
+
+    private void evict() {
+        long now = System.nanoTime();
+        entries.values().removeIf(cached -> cached.expiresAtNanos() - now <= 0);
+
+        Iterator<CachedUser> iterator = entries.values().iterator();
+        int target = maxSize - Math.max(1, maxSize / 10);
+        while (entries.size() > target && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+}
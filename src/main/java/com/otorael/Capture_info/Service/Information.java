@@ -2,9 +2,55 @@ package com.otorael.Capture_info.Service;
 
 import com.otorael.Capture_info.Model.InformationModel;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
 public interface Information {
 
-    InformationModel getIpAddress();
-    InformationModel getProtocol();
+    /**
+     *
+     * @param ipAddress the client address to look up, in any IPv4 or IPv6 notation
+     * @param afterId id of the last row of the previous page, null for the first page
+     * @param limit page size
+     * @return at most limit captures ordered by id, empty if ipAddress is not an address
+     */
+    List<InformationModel> findByIpAddress(String ipAddress, Long afterId, int limit);
+
+    /**
+     *
+     * @param protocol the X-Forwarded-Proto value to look up i.e http or https
+     * @param afterId id of the last row of the previous page, null for the first page
+     * @param limit page size
+     * @return at most limit captures ordered by id, empty if protocol is neither http nor https
+     */
+    List<InformationModel> findByProtocol(String protocol, Long afterId, int limit);
+
+    /**
+     *
+     * @param from inclusive start of the range
+     * @param to exclusive end of the range
+     * @param afterCapturedAt capture time of the last row of the previous page, null for the first page
+     * @param afterId id of the last row of the previous page, null for the first page
+     * @param limit page size
+     * @return at most limit captures ordered by capture time then id
+     */
+    List<InformationModel> findByCapturedAt(Instant from, Instant to, Instant afterCapturedAt, Long afterId, int limit);
+
+    /**
+     *
+     * @param limit the page size a caller asked for
+     * @return the page size the find methods actually use, a page shorter than this is the last one
+     */
+    int pageSize(int limit);
+
+    /**
+     * Streams every capture in the range without holding more than one row in memory.
+     *
+     * @param from inclusive start of the range
+     * @param to exclusive end of the range
+     * @param consumer receives each capture in order
+     */
+    void streamByCapturedAt(Instant from, Instant to, Consumer<InformationModel> consumer);
 
 }
@@ -1,4 +1,348 @@
 package com.otorael.Capture_info.Service;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rates 4 digit PINs against the frequency ranked list in {@code lists/PinCode.txt}.
+ * <p>
+ *     The list is loaded once at startup into a {@code short[10000]} indexed by the PIN's numeric value,
+ *     so a lookup is a bounds check plus one array read with no boxing or hashing.
+ *     Rank 1 is the most popular PIN, 0 means the PIN is not in the list.
+ * </p>
+ * <p>
+ *     Streamed checks are scored and encoded on a pool of {@code pin.scoring-threads} threads (defaults to one
+ *     per core) with a bounded queue. When the queue is full the request thread does the work itself, so a
+ *     burst of bulk checks slows down instead of piling up.
+ * </p>
+ *
+ * @author otorael
+ */
+@Service
 public class PinCodeService {
+
+    private static final Logger log = LoggerFactory.getLogger(PinCodeService.class);
+
+    public static final int PIN_LENGTH = 4;
+    public static final int PIN_SPACE = 10_000;
+
+    /** returned by {@link #rank} for input that is not exactly 4 digits */
+    public static final int INVALID = -1;
+
+    /** PINs read, scored and written per round of {@link #scoreStream} */
+    private static final int STREAM_CHUNK = 16_384;
+
+    /** below this many PINs a chunk is scored on the calling thread */
+    private static final int PARALLEL_THRESHOLD = 4_096;
+
+    /** the longest result is the invalid one with a 19 digit line number, 64 bytes is plenty */
+    private static final int MAX_RESULT_BYTES = 64;
+
+    private static final byte[] PIN_PREFIX = "{\"pin\":\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] RANK_PREFIX = "\",\"rank\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] WEAK_SUFFIX = ",\"verdict\":\"weak\"}\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] STRONG_SUFFIX = ",\"verdict\":\"strong\"}\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] INVALID_PREFIX = "{\"line\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] INVALID_SUFFIX = ",\"verdict\":\"invalid\"}\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final short[] ranks = new short[PIN_SPACE];
+    private final int weakRankThreshold;
+    private final String listLocation;
+    private final int slices;
+    private final ThreadPoolExecutor executor;
+
+    public PinCodeService(
+            @Value("${pin.weak-rank-threshold:1000}") int weakRankThreshold,
+            @Value("${pin.list-location:lists/PinCode.txt}") String listLocation,
+            @Value("${pin.scoring-threads:0}") int scoringThreads
+    ) {
+        this.weakRankThreshold = weakRankThreshold;
+        this.listLocation = listLocation;
+
+        int poolSize = scoringThreads > 0 ? scoringThreads : Runtime.getRuntime().availableProcessors();
+        this.slices = poolSize;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(poolSize * 2),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "pin-scoring-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @PostConstruct
+    public void load() {
+        int rank = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new ClassPathResource(listLocation).getInputStream(), StandardCharsets.US_ASCII))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int pin = parse(line.trim());
+                /* keep the first (best) rank if a PIN is listed twice */
+                if (pin != INVALID && ranks[pin] == 0) {
+                    ranks[pin] = (short) ++rank;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load PIN list " + listLocation, e);
+        }
+        log.info("Loaded {} ranked PINs, weak threshold: {}", rank, weakRankThreshold);
+    }
+
+    /**
+     *
+     * @param pin the candidate PIN
+     * @return popularity rank starting at 1, 0 if unlisted, {@link #INVALID} if not a 4 digit PIN
+     */
+    public int rank(CharSequence pin) {
+        int index = parse(pin);
+        return index == INVALID ? INVALID : ranks[index];
+    }
+
+    /**
+     *
+     * @param pin numeric value of the PIN, 0 to 9999
+     * @return popularity rank starting at 1, 0 if unlisted, {@link #INVALID} if out of range
+     */
+    public int rank(int pin) {
+        return pin < 0 || pin >= PIN_SPACE ? INVALID : ranks[pin];
+    }
+
+    /**
+     *
+     * @param rank a rank returned by {@link #rank}
+     * @return true if the PIN is popular enough to be guessed
+     */
+    public boolean isWeak(int rank) {
+        return rank > 0 && rank <= weakRankThreshold;
+    }
+
+    /**
+     *
+     * @param pin the candidate PIN
+     * @return its numeric value, or {@link #INVALID} if it is not exactly 4 ASCII digits
+     */
+    public static int parse(CharSequence pin) {
+        if (pin == null || pin.length() != PIN_LENGTH) {
+            return INVALID;
+        }
+        int value = 0;
+        for (int i = 0; i < PIN_LENGTH; i++) {
+            int digit = pin.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return INVALID;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Scores a stream of PINs, one per line, and writes one NDJSON result per non-blank input line.
+     * <p>
+     *     Each line may be a bare PIN ({@code 1234}), a JSON string ({@code "1234"}) or an NDJSON object
+     *     ({@code {"pin":"1234"}}); the first run of digits on the line is taken as the PIN and must be
+     *     exactly 4 digits long. Input is read and output written in fixed size chunks, so memory stays
+     *     constant however large the body is and nothing is allocated per PIN. A full chunk is split into one
+     *     slice per scoring thread, each scored and encoded into its own buffer, and the slices are written
+     *     in input order; smaller chunks are scored on the calling thread.
+     * </p>
+     *
+     * @param in the request body
+     * @param out the response body
+     * @return the number of lines scored
+     * @throws IOException if reading or writing fails
+     */
+    public long scoreStream(InputStream in, OutputStream out) throws IOException {
+        byte[] readBuffer = new byte[64 * 1024];
+        byte[] writeBuffer = new byte[64 * 1024];
+        int[] pins = new int[STREAM_CHUNK];
+        long[] lines = new long[STREAM_CHUNK];
+        /* filled in by the first chunk large enough to be split */
+        byte[][] sliceBuffers = new byte[slices][];
+
+        int count = 0;
+        int writePosition = 0;
+        long lineNumber = 1;
+        long total = 0;
+
+        /* parser state for the current line */
+        int value = 0;
+        int digits = 0;
+        boolean runClosed = false;
+        boolean blank = true;
+
+        int read;
+        boolean finished = false;
+        while (!finished) {
+            read = in.read(readBuffer);
+            if (read < 0) {
+                finished = true;
+                /* a last line without a trailing newline still counts */
+                read = blank ? 0 : 1;
+                readBuffer[0] = '\n';
+            }
+
+            for (int i = 0; i < read; i++) {
+                byte b = readBuffer[i];
+
+                if (b == '\n') {
+                    if (!blank) {
+                        pins[count] = digits == PIN_LENGTH ? value : INVALID;
+                        lines[count] = lineNumber;
+                        if (++count == STREAM_CHUNK) {
+                            writePosition = scoreChunk(pins, lines, count, out, writeBuffer, writePosition, sliceBuffers);
+                            total += count;
+                            count = 0;
+                        }
+                    }
+                    lineNumber++;
+                    value = 0;
+                    digits = 0;
+                    runClosed = false;
+                    blank = true;
+                } else if (b >= '0' && b <= '9') {
+                    blank = false;
+                    if (!runClosed) {
+                        value = value * 10 + (b - '0');
+                        /* stop counting past 5 so a long digit run cannot overflow */
+                        digits = Math.min(digits + 1, PIN_LENGTH + 1);
+                    }
+                } else if (b != '\r' && b != ' ' && b != '\t') {
+                    blank = false;
+                    runClosed = digits > 0;
+                }
+            }
+        }
+
+        writePosition = scoreChunk(pins, lines, count, out, writeBuffer, writePosition, sliceBuffers);
+        total += count;
+        out.write(writeBuffer, 0, writePosition);
+        out.flush();
+        return total;
+    }
+
+    private int scoreChunk(int[] pins, long[] lines, int count, OutputStream out,
+                           byte[] buffer, int position, byte[][] sliceBuffers) throws IOException {
+        if (count < PARALLEL_THRESHOLD || slices == 1) {
+            for (int i = 0; i < count; i++) {
+                if (buffer.length - position < MAX_RESULT_BYTES) {
+                    out.write(buffer, 0, position);
+                    position = 0;
+                }
+                position = encode(pins[i], lines[i], buffer, position);
+            }
+            return position;
+        }
+
+        out.write(buffer, 0, position);
+        int perSlice = (count + slices - 1) / slices;
+        @SuppressWarnings("unchecked")
+        CompletableFuture<Integer>[] encoded = new CompletableFuture[slices];
+        for (int slice = 1; slice < slices; slice++) {
+            int from = Math.min(count, slice * perSlice);
+            int to = Math.min(count, from + perSlice);
+            int index = slice;
+            encoded[slice] = CompletableFuture.supplyAsync(
+                    () -> encodeSlice(pins, lines, from, to, sliceBuffers, index), executor);
+        }
+        /* the calling thread takes the first slice rather than wait idle */
+        int length = encodeSlice(pins, lines, 0, Math.min(count, perSlice), sliceBuffers, 0);
+        out.write(sliceBuffers[0], 0, length);
+        for (int slice = 1; slice < slices; slice++) {
+            /* join before reading the buffer, the slice may have allocated it */
+            int sliceLength = encoded[slice].join();
+            out.write(sliceBuffers[slice], 0, sliceLength);
+        }
+        return 0;
+    }
+
+    /**
+     *
+     * @return the number of bytes written to {@code sliceBuffers[slice]}
+     */
+    private int encodeSlice(int[] pins, long[] lines, int from, int to, byte[][] sliceBuffers, int slice) {
+        byte[] buffer = sliceBuffers[slice];
+        if (buffer == null) {
+            buffer = new byte[(STREAM_CHUNK / slices + 1) * MAX_RESULT_BYTES];
+            sliceBuffers[slice] = buffer;
+        }
+        int position = 0;
+        for (int i = from; i < to; i++) {
+            position = encode(pins[i], lines[i], buffer, position);
+        }
+        return position;
+    }
+
+    /**
+     *
+     * @return the position after the NDJSON result for one input line
+     */
+    private int encode(int pin, long line, byte[] buffer, int position) {
+        int rank = rank(pin);
+        if (rank == INVALID) {
+            position = put(buffer, position, INVALID_PREFIX);
+            position = putNumber(buffer, position, line);
+            return put(buffer, position, INVALID_SUFFIX);
+        }
+        position = put(buffer, position, PIN_PREFIX);
+        buffer[position++] = (byte) ('0' + pin / 1000);
+        buffer[position++] = (byte) ('0' + pin / 100 % 10);
+        buffer[position++] = (byte) ('0' + pin / 10 % 10);
+        buffer[position++] = (byte) ('0' + pin % 10);
+        position = put(buffer, position, RANK_PREFIX);
+        position = putNumber(buffer, position, rank);
+        return put(buffer, position, isWeak(rank) ? WEAK_SUFFIX : STRONG_SUFFIX);
+    }
+
+    private static int put(byte[] buffer, int position, byte[] bytes) {
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        return position + bytes.length;
+    }
+
+    private static int putNumber(byte[] buffer, int position, long number) {
+        if (number == 0) {
+            buffer[position] = '0';
+            return position + 1;
+        }
+        int length = 0;
+        for (long n = number; n > 0; n /= 10) {
+            length++;
+        }
+        for (int i = position + length - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + number % 10);
+            number /= 10;
+        }
+        return position + length;
+    }
 }
@@ -0,0 +1,73 @@
+package com.otorael.Capture_info.Service;
+
+import java.util.List;
+
+/**
+ * <p>
+ *     Keeps approximate, memory-bounded hit counts per client address and per protocol over a sliding window,
+ *     fed from the capture path so top talkers can be answered without scanning {@code information_captured}.
+ * </p>
+ */
+public interface TrafficAggregator {
+
+    /**
+     *
+     * @param key the client address or protocol
+     * @param hits estimated hits in the window, may overcount but never undercounts
+     */
+    record Count(String key, long hits) {
+    }
+
+    /**
+     *
+     * @param ipAddress the resolved client address as text, null if it could not be resolved
+     * @param protocol the X-Forwarded-Proto value or the request scheme
+     */
+    void record(String ipAddress, String protocol);
+
+    /**
+     *
+     * @param windowMillis how far back to look, capped by {@link #maxWindowMillis()}
+     * @param limit how many addresses to return
+     * @return the busiest addresses in the window, busiest first
+     */
+    List<Count> topTalkers(long windowMillis, int limit);
+
+    /**
+     *
+     * @param ipAddress the client address to look up, as returned by {@link #topTalkers(long, int)}
+     * @param windowMillis how far back to look, capped by {@link #maxWindowMillis()}
+     * @return estimated hits from that address in the window
+     */
+    long hits(String ipAddress, long windowMillis);
+
+    /**
+     *
+     * @param windowMillis how far back to look, capped by {@link #maxWindowMillis()}
+     * @return hits per protocol in the window, busiest first
+     */
+    List<Count> protocols(long windowMillis);
+
+    /**
+     *
+     * @param windowMillis how far back to look, capped by {@link #maxWindowMillis()}
+     * @return all hits in the window
+     */
+    long totalHits(long windowMillis);
+
+    /**
+     *
+     * @param windowMillis the requested window
+     * @return how much time the counts for that window actually cover, shorter than asked right after startup,
+     *         used to turn hits into rates
+     */
+    long coveredMillis(long windowMillis);
+
+    long maxWindowMillis();
+
+    /**
+     *
+     * @return the most addresses {@link #topTalkers(long, int)} can return
+     */
+    int maxTalkers();
+}
@@ -2,7 +2,9 @@ package com.otorael.Capture_info.Service;
 
 import com.otorael.Capture_info.Model.UserModel;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface UserService {
-    UserModel registerUser(UserModel userModel);
-    UserModel loginUser(UserModel userModel);
-}
\ No newline at end of file
+    CompletableFuture<UserModel> registerUser(UserModel userModel);
+    CompletableFuture<UserModel> loginUser(UserModel userModel);
+}
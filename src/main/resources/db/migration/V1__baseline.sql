@@ -0,0 +1,36 @@
+-- schema as of the compact capture rows, owned by Flyway under the prod profile
+
+CREATE TABLE users (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    first_name VARCHAR(255),
+    last_name  VARCHAR(255),
+    email      VARCHAR(255) NOT NULL,
+    password   VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+-- ids are assigned by the application, captured_at is part of the key so the table can be partitioned by day
+CREATE TABLE information_captured (
+    id             BIGINT        NOT NULL,
+    client_address VARBINARY(16),
+    protocol       TINYINT,
+    captured_at    DATETIME(6)   NOT NULL,
+    PRIMARY KEY (id, captured_at),
+    INDEX idx_capture_addr_id (client_address, id),
+    INDEX idx_capture_proto_id (protocol, id),
+    INDEX idx_capture_time_id (captured_at, id)
+) ENGINE = InnoDB
+  PARTITION BY RANGE COLUMNS (captured_at) (
+    -- CapturePartitionManager splits one partition per day off pmax at startup
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
+
+CREATE TABLE revoked_tokens (
+    token_digest VARCHAR(64) NOT NULL,
+    revoked_at   DATETIME(6) NOT NULL,
+    expires_at   DATETIME(6) NOT NULL,
+    PRIMARY KEY (token_digest),
+    INDEX idx_revoked_at (revoked_at),
+    INDEX idx_revoked_expires_at (expires_at)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
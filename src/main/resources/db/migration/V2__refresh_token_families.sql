@@ -0,0 +1,9 @@
+-- one row per login instead of one revocation per rotated refresh token
+
+CREATE TABLE refresh_token_families (
+    family           VARCHAR(36) NOT NULL,
+    current_token_id VARCHAR(36),
+    expires_at       DATETIME(6) NOT NULL,
+    PRIMARY KEY (family),
+    INDEX idx_refresh_family_expires_at (expires_at)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
@@ -0,0 +1,10 @@
+-- registration and login lower-case and trim emails, so accounts stored before that could not log in
+-- unless the column's collation happened to ignore case. Accounts whose normalized emails would collide
+-- are left as they are rather than failing the migration.
+
+UPDATE users u
+    LEFT JOIN users other
+        ON other.id <> u.id AND LOWER(TRIM(other.email)) = LOWER(TRIM(u.email))
+SET u.email = LOWER(TRIM(u.email))
+WHERE u.email COLLATE utf8mb4_bin <> LOWER(TRIM(u.email)) COLLATE utf8mb4_bin
+  AND other.id IS NULL;
@@ -0,0 +1,4 @@
+-- revocations are synced between nodes by revoked_at, so it has to come from one clock: the database's
+
+ALTER TABLE revoked_tokens
+    MODIFY revoked_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6);
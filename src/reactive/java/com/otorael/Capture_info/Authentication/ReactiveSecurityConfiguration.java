@@ -0,0 +1,199 @@
+package com.otorael.Capture_info.Authentication;
+
+import com.otorael.Capture_info.Configuration.CaptureMetrics;
+import com.otorael.Capture_info.Network.ClientAddressResolver;
+import com.otorael.Capture_info.ResponseDTO.EncodedJson;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.authentication.ServerAuthenticationEntryPointFailureHandler;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers;
+import org.springframework.web.server.WebFilter;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ *     The reactive counterpart of {@link SecurityConfiguration}: the same public and protected paths, the same
+ *     per-address throttling as {@link RateLimitFilter} and the same bearer token checks as
+ *     {@link JwtAuthenticationFilter}, all of which are in-memory and safe to run on the event loop.
+ * </p>
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSecurityConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveSecurityConfiguration.class);
+
+    private static final EncodedJson TOO_MANY_ATTEMPTS =
+            EncodedJson.message("failure", "Too many attempts, try again later");
+
+    private final JwtUtility jwtUtility;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationStore tokenRevocationStore;
+    private final LoginRateLimiter loginRateLimiter;
+    private final ClientAddressResolver clientAddressResolver;
+    private final CaptureMetrics captureMetrics;
+
+    public ReactiveSecurityConfiguration(
+            JwtUtility jwtUtility,
+            VerifiedTokenCache verifiedTokenCache,
+            TokenRevocationStore tokenRevocationStore,
+            LoginRateLimiter loginRateLimiter,
+            ClientAddressResolver clientAddressResolver,
+            CaptureMetrics captureMetrics
+    ) {
+        this.jwtUtility = jwtUtility;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenRevocationStore = tokenRevocationStore;
+        this.loginRateLimiter = loginRateLimiter;
+        this.clientAddressResolver = clientAddressResolver;
+        this.captureMetrics = captureMetrics;
+    }
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(
+            ServerHttpSecurity serverHttpSecurity,
+            ReactiveAuthenticationManager jwtAuthenticationManager
+    ) {
+        /* only protected paths look at the token, a bad token on a public path is ignored as on the servlet stack */
+        AuthenticationWebFilter jwtFilter = new AuthenticationWebFilter(jwtAuthenticationManager);
+        jwtFilter.setRequiresAuthenticationMatcher(ServerWebExchangeMatchers.pathMatchers("/api/v1/protected/**"));
+        jwtFilter.setServerAuthenticationConverter(exchange -> {
+            String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                return Mono.empty();
+            }
+            return Mono.just(UsernamePasswordAuthenticationToken.unauthenticated(null, authHeader.substring(7)));
+        });
+        jwtFilter.setAuthenticationFailureHandler(new ServerAuthenticationEntryPointFailureHandler(
+                new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED)));
+
+        return serverHttpSecurity
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.FORBIDDEN)))
+                .authorizeExchange(exchanges -> exchanges
+                        .pathMatchers("/api/v1/public/**").permitAll()
+                        .pathMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                        .anyExchange().authenticated())
+                .addFilterBefore(rateLimitFilter(), SecurityWebFiltersOrder.AUTHENTICATION)
+                .addFilterAt(jwtFilter, SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    /**
+     * Checks an access token the way {@link JwtAuthenticationFilter} does: revocation first, then the
+     * verified token cache, then the signature.
+     */
+    @Bean
+    public ReactiveAuthenticationManager jwtAuthenticationManager() {
+        return authentication -> {
+            String token = (String) authentication.getCredentials();
+
+            if (tokenRevocationStore.isRevoked(token)) {
+                verifiedTokenCache.invalidate(token);
+                captureMetrics.authOutcome("token", "blacklisted");
+                return Mono.error(new BadCredentialsException("Token not valid"));
+            }
+
+            UsernamePasswordAuthenticationToken cached = verifiedTokenCache.get(token);
+            if (cached != null) {
+                /* counted like a parsed token, only the jwt_verify timer is left out as nothing was parsed */
+                captureMetrics.authOutcome("token", "success");
+                return Mono.just(cached);
+            }
+
+            long verifyStarted = System.nanoTime();
+            try {
+                /* refresh tokens are rejected here, they are only good for /public/refresh */
+                Claims claims = jwtUtility.parseAccessToken(token);
+                String email = claims.getSubject();
+                if (email == null) {
+                    return Mono.error(new BadCredentialsException("Token not valid"));
+                }
+
+                UsernamePasswordAuthenticationToken verified = UsernamePasswordAuthenticationToken.authenticated(
+                        new User(email, "", Collections.emptyList()),
+                        null,
+                        Collections.emptyList()
+                );
+                if (claims.getExpiration() != null) {
+                    verifiedTokenCache.put(token, verified, claims.getExpiration().getTime());
+                }
+                captureMetrics.authOutcome("token", "success");
+                return Mono.just(verified);
+            } catch (Exception err) {
+                captureMetrics.authOutcome("token", "invalid");
+                return Mono.error(new BadCredentialsException("Token not valid", err));
+            } finally {
+                captureMetrics.jwtVerify().record(System.nanoTime() - verifyStarted, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+
+    /**
+     * Charges registration, login and refresh attempts to the client address and refuses them with the same
+     * 429 body and Retry-After as {@link RateLimitFilter}.
+     */
+    private WebFilter rateLimitFilter() {
+        return (exchange, chain) -> {
+            String operation = HttpMethod.POST.equals(exchange.getRequest().getMethod())
+                    ? RateLimitFilter.operation(exchange.getRequest().getPath().pathWithinApplication())
+                    : null;
+            if (operation == null) {
+                return chain.filter(exchange);
+            }
+
+            String address = clientAddressResolver.resolve(exchange.getRequest()).text();
+            long retryAfter = loginRateLimiter.tryAcquireAddress(address);
+            if (retryAfter <= 0) {
+                return chain.filter(exchange);
+            }
+
+            captureMetrics.authOutcome(operation, "throttled");
+            log.warn("Attempt throttled for address {} on {}", address, exchange.getRequest().getPath());
+
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            response.getHeaders().setContentLength(TOO_MANY_ATTEMPTS.length());
+            return response.writeWith(Mono.fromSupplier(() -> {
+                DataBuffer body = response.bufferFactory().allocateBuffer(TOO_MANY_ATTEMPTS.length());
+                try {
+                    TOO_MANY_ATTEMPTS.writeTo(body.asOutputStream());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return body;
+            }));
+        };
+    }
+}
@@ -0,0 +1,70 @@
+package com.otorael.Capture_info.Configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.server.WebFilter;
+
+/**
+ * <p>
+ *     What the reactive stack needs beyond the WebFlux and R2DBC auto-configuration.
+ * </p>
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveStackConfiguration {
+
+    /**
+     * Tomcat is still on the classpath for the servlet stack and Spring Boot would pick it first.
+     * Netty's event loops are what the reactive stack is for.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * Spring Boot leaves out the JDBC datasource once an R2DBC connection factory exists, but the capture writer,
+     * partition maintenance and revoked tokens still run on JPA. This puts the usual Hikari pool from
+     * {@code spring.datasource} back, unless {@link ReplicaRoutingConfiguration} provides one.
+     */
+    @Bean
+    @ConditionalOnExpression("'${replica.urls:}'.isBlank()")
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Times the first API request for {@link StartupTimingReporter}, like {@link FirstRequestTimingFilter} does
+     * on the servlet stack.
+     */
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public WebFilter firstRequestTimingFilter(StartupTimingReporter startupTimingReporter) {
+        return (exchange, chain) -> {
+            String path = exchange.getRequest().getPath().value();
+            if (!startupTimingReporter.awaitingFirstRequest() || !StartupTimingReporter.isApiPath(path)) {
+                return chain.filter(exchange);
+            }
+            long started = System.nanoTime();
+            return chain.filter(exchange).doFinally(signal -> {
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                startupTimingReporter.firstRequestCompleted(
+                        exchange.getRequest().getMethod().name(),
+                        path,
+                        status == null ? 200 : status.value(),
+                        System.nanoTime() - started
+                );
+            });
+        };
+    }
+}
@@ -0,0 +1,138 @@
+package com.otorael.Capture_info.Controller;
+
+import com.otorael.Capture_info.Model.CaptureProtocol;
+import com.otorael.Capture_info.Model.InformationModel;
+import com.otorael.Capture_info.Network.ClientAddressResolver;
+import com.otorael.Capture_info.ResponseDTO.CapturePageDTO;
+import com.otorael.Capture_info.ResponseDTO.CaptureRecordDTO;
+import com.otorael.Capture_info.ResponseDTO.InformationResponseDTO;
+import com.otorael.Capture_info.ResponseDTO.MessageDTO;
+import com.otorael.Capture_info.Service.CaptureWriter;
+import com.otorael.Capture_info.Service.Implementation.ReactiveInformationImplementation;
+import com.otorael.Capture_info.Service.TrafficAggregator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Reactive counterpart of {@link GetInfoController} for get-info and the capture queries.
+ * <p>
+ *     get-info hands the capture to the same {@link CaptureWriter} queue, which never waits on the database
+ *     under the {@code drop} overflow policy the reactive profile sets.
+ * </p>
+ */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RestController
+@RequestMapping("/api/v1/")
+public class ReactiveGetInfoController {
+
+    private final CaptureWriter captureWriter;
+    private final ReactiveInformationImplementation information;
+    private final TrafficAggregator trafficAggregator;
+    private final ClientAddressResolver clientAddressResolver;
+
+    public ReactiveGetInfoController(
+            CaptureWriter captureWriter,
+            ReactiveInformationImplementation information,
+            TrafficAggregator trafficAggregator,
+            ClientAddressResolver clientAddressResolver
+    ) {
+        this.captureWriter = captureWriter;
+        this.information = information;
+        this.trafficAggregator = trafficAggregator;
+        this.clientAddressResolver = clientAddressResolver;
+    }
+
+    @RequestMapping(value = "/public/get-info", method = RequestMethod.GET)
+    public ResponseEntity<?> getIpAddress(ServerHttpRequest request){
+
+        /* forwarded headers are only believed from trusted proxies */
+        ClientAddressResolver.ClientAddress client = clientAddressResolver.resolve(request);
+        String Ipaddress = client.text();
+        String Protocol = client.protocol();
+
+        captureWriter.submit(new InformationModel(
+                null,
+                client.address(),
+                CaptureProtocol.of(Protocol),
+                Instant.now()
+        ));
+        trafficAggregator.record(Ipaddress, Protocol);
+
+        InformationResponseDTO outPut = new InformationResponseDTO(
+                "Success",
+                Ipaddress,
+                Protocol,
+                "Network Information returned successfully"
+        );
+        return ResponseEntity.status(HttpStatus.OK).body(outPut);
+    }
+
+    /**
+     * Same parameters and responses as {@link GetInfoController#getCaptures}.
+     *
+     * @return CapturePageDTO with status 200 (OK) or MessageDTO with status 400 (BAD_REQUEST)
+     */
+    @RequestMapping(value = "/protected/captures", method = RequestMethod.GET)
+    public Mono<ResponseEntity<?>> getCaptures(
+            @RequestParam(required = false) String ip,
+            @RequestParam(required = false) String protocol,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Instant afterCapturedAt,
+            @RequestParam(defaultValue = "100") int limit
+    ){
+        Flux<InformationModel> captures;
+        if (ip != null) {
+            captures = information.findByIpAddress(ip, afterId, limit);
+        } else if (protocol != null) {
+            captures = information.findByProtocol(protocol, afterId, limit);
+        } else if (from != null && to != null) {
+            captures = information.findByCapturedAt(from, to, afterCapturedAt, afterId, limit);
+        } else {
+            return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new MessageDTO(
+                    "failure",
+                    "Provide ip, protocol or a from/to time range"
+            )));
+        }
+
+        return captures.collectList().map(page -> {
+            InformationModel last = page.isEmpty() ? null : page.get(page.size() - 1);
+            List<CaptureRecordDTO> records = page.stream().map(CaptureRecordDTO::from).toList();
+            return ResponseEntity.status(HttpStatus.OK).body(new CapturePageDTO(
+                    "Success",
+                    records,
+                    last != null ? last.getId() : null,
+                    last != null ? last.getCapturedAt() : null,
+                    "Captured information returned successfully"
+            ));
+        });
+    }
+
+    /**
+     * Streams every capture in the time range as newline delimited JSON, rows are read as the client takes them.
+     *
+     * @param from inclusive start of the range
+     * @param to exclusive end of the range
+     * @return the NDJSON body
+     */
+    @RequestMapping(value = "/protected/captures/export", method = RequestMethod.GET, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<CaptureRecordDTO> exportCaptures(
+            @RequestParam Instant from,
+            @RequestParam Instant to
+    ){
+        return information.streamByCapturedAt(from, to).map(CaptureRecordDTO::from);
+    }
+}
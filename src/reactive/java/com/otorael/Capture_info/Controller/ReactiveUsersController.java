@@ -0,0 +1,202 @@
+package com.otorael.Capture_info.Controller;
+
+import com.otorael.Capture_info.Authentication.HashingCapacityExceededException;
+import com.otorael.Capture_info.Authentication.LoginRateLimiter;
+import com.otorael.Capture_info.Authentication.RefreshTokenService;
+import com.otorael.Capture_info.Configuration.CaptureMetrics;
+import com.otorael.Capture_info.Model.UserModel;
+import com.otorael.Capture_info.RequestDTO.RefreshTokenRequestDTO;
+import com.otorael.Capture_info.ResponseDTO.MessageDTO;
+import com.otorael.Capture_info.ResponseDTO.TokenDTO;
+import com.otorael.Capture_info.ResponseDTO.UserInfoDTO;
+import com.otorael.Capture_info.Service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import static com.otorael.Capture_info.Configuration.SuccessLogSampler.SUCCESS;
+
+/**
+ * Reactive counterpart of {@link UsersController}, same paths, statuses and bodies.
+ * Goes through the same {@link UserService} contract, which on this stack is the R2DBC implementation.
+ */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RestController
+@RequestMapping("/api/v1/")
+public class ReactiveUsersController {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveUsersController.class);
+
+    private final UserService userService;
+    private final RefreshTokenService refreshTokenService;
+    private final LoginRateLimiter loginRateLimiter;
+    private final CaptureMetrics captureMetrics;
+
+    public ReactiveUsersController(
+            UserService userService,
+            RefreshTokenService refreshTokenService,
+            LoginRateLimiter loginRateLimiter,
+            CaptureMetrics captureMetrics
+    ) {
+        this.userService = userService;
+        this.refreshTokenService = refreshTokenService;
+        this.loginRateLimiter = loginRateLimiter;
+        this.captureMetrics = captureMetrics;
+        log.info("ReactiveUsersController initialized with userService and refreshTokenService");
+    }
+
+    /**
+     *
+     * @param userModel The user data model containing registration information
+     * @return UserInfoDTO with 201 (CREATED), or MessageDTO with 409, 429, 503 or 500 as on the servlet stack
+     */
+    @RequestMapping(value = "/public/register", method = RequestMethod.POST)
+    public Mono<ResponseEntity<?>> register(@RequestBody UserModel userModel) {
+        String userEmail = userModel.getEmail();
+
+        long retryAfter = loginRateLimiter.tryAcquireEmail(userEmail);
+        if (retryAfter > 0) {
+            return Mono.just(throttled("register", userEmail, retryAfter));
+        }
+
+        return Mono.fromFuture(() -> userService.registerUser(userModel))
+                .<ResponseEntity<?>>map(registeredUser -> signedIn("register", registeredUser, HttpStatus.CREATED,
+                        "The User was registered successfully"))
+                .switchIfEmpty(Mono.<ResponseEntity<?>>fromSupplier(() -> {
+                    captureMetrics.authOutcome("register", "conflict");
+                    log.warn("Registration failed - Duplicate email detected: {}", userEmail);
+                    return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageDTO(
+                            "failure",
+                            "Email is taken"
+                    ));
+                }))
+                .onErrorResume(e -> Mono.just(failure("register", userEmail, e)));
+    }
+
+    /**
+     *
+     * @param userModel The user credentials for authentication
+     * @return UserInfoDTO with 200 (OK), or MessageDTO with 409, 429, 503 or 500 as on the servlet stack
+     */
+    @RequestMapping(value = "/public/login", method = RequestMethod.POST)
+    public Mono<ResponseEntity<?>> login(@RequestBody UserModel userModel) {
+        String userEmail = userModel.getEmail();
+
+        long retryAfter = loginRateLimiter.tryAcquireEmail(userEmail);
+        if (retryAfter > 0) {
+            return Mono.just(throttled("login", userEmail, retryAfter));
+        }
+
+        return Mono.fromFuture(() -> userService.loginUser(userModel))
+                .<ResponseEntity<?>>map(authenticatedUser -> signedIn("login", authenticatedUser, HttpStatus.OK,
+                        "User logged in successfully"))
+                .switchIfEmpty(Mono.<ResponseEntity<?>>fromSupplier(() -> {
+                    captureMetrics.authOutcome("login", "invalid");
+                    log.warn("Login failed - Invalid credentials for user: {}", userEmail);
+                    return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageDTO(
+                            "failure",
+                            "Invalid credentials, try again"
+                    ));
+                }))
+                .onErrorResume(e -> Mono.just(failure("login", userEmail, e)));
+    }
+
+    /**
+     * Rotation records the used token through JPA, so it runs on the bounded elastic scheduler.
+     *
+     * @param refreshTokenRequest carries the refresh token from login, register or the previous refresh
+     * @return TokenDTO with 200 (OK) or MessageDTO with 401 (UNAUTHORIZED)
+     */
+    @RequestMapping(value = "/public/refresh", method = RequestMethod.POST)
+    public Mono<ResponseEntity<?>> refresh(@RequestBody RefreshTokenRequestDTO refreshTokenRequest) {
+        String refreshToken = refreshTokenRequest.getRefreshToken();
+        if (refreshToken == null) {
+            return Mono.just(refreshRejected());
+        }
+
+        return Mono.fromCallable(() -> refreshTokenService.rotate(refreshToken))
+                .subscribeOn(Schedulers.boundedElastic())
+                .<ResponseEntity<?>>map(tokens -> ResponseEntity.status(HttpStatus.OK).body(new TokenDTO(
+                        "success",
+                        tokens.accessToken(),
+                        tokens.refreshToken(),
+                        "Token refreshed successfully"
+                )))
+                .switchIfEmpty(Mono.fromSupplier(this::refreshRejected));
+    }
+
+    private ResponseEntity<?> signedIn(String operation, UserModel user, HttpStatus status, String message) {
+        RefreshTokenService.TokenPair tokens = refreshTokenService.issue(user.getEmail());
+        captureMetrics.authOutcome(operation, "success");
+        log.info(SUCCESS, "{} successful - Email: {}", operation, user.getEmail());
+
+        return ResponseEntity.status(status).body(new UserInfoDTO(
+                "success",
+                user.getFirstName(),
+                user.getLastName(),
+                user.getEmail(),
+                tokens.accessToken(),
+                tokens.refreshToken(),
+                message
+        ));
+    }
+
+    private ResponseEntity<?> refreshRejected() {
+        log.warn("Token refresh rejected");
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new MessageDTO(
+                "failure",
+                "Refresh token not valid, log in again"
+        ));
+    }
+
+    private ResponseEntity<?> throttled(String operation, String userEmail, long retryAfter) {
+        captureMetrics.authOutcome(operation, "throttled");
+        log.warn("{} throttled, too many attempts - Email: {}", operation, userEmail);
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter))
+                .body(new MessageDTO(
+                        "failure",
+                        "Too many attempts, try again later"
+                ));
+    }
+
+    private ResponseEntity<?> failure(String operation, String userEmail, Throwable e) {
+        if (e instanceof HashingCapacityExceededException) {
+            /* Shed load quickly, the client should back off and retry */
+            captureMetrics.authOutcome(operation, "rejected");
+            log.warn("{} rejected, password hashing saturated - Email: {}", operation, userEmail);
+
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new MessageDTO(
+                            "failure",
+                            "Server busy, try again shortly"
+                    ));
+        }
+
+        captureMetrics.authOutcome(operation, "error");
+        log.error("{} process failed for email: {} - Error type: {} - Message: {}",
+                operation,
+                userEmail,
+                e.getClass().getSimpleName(),
+                e.getMessage(),
+                e
+        );
+
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new MessageDTO(
+                        "failure",
+                        "Executed with exception " + e.getMessage()
+                ));
+    }
+}
@@ -0,0 +1,90 @@
+package com.otorael.Capture_info.Repository;
+
+import com.otorael.Capture_info.Model.CaptureProtocol;
+import com.otorael.Capture_info.Model.InformationModel;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * <p>
+ *     R2DBC counterpart of {@link InformationRepository} for the reactive stack, with the same keyset pages.
+ *     {@code captured_at} is a DATETIME, read and written in the JVM's zone like the JDBC side does.
+ * </p>
+ */
+@Repository
+public class ReactiveInformationRepository {
+
+    private static final String COLUMNS = "id, client_address, protocol, captured_at";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveInformationRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<InformationModel> findPageByClientAddress(byte[] address, long afterId, int limit) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM information_captured"
+                        + " WHERE client_address = :address AND id > :afterId ORDER BY id LIMIT :limit")
+                .bind("address", address)
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(ReactiveInformationRepository::toInformation)
+                .all();
+    }
+
+    public Flux<InformationModel> findPageByProtocol(CaptureProtocol protocol, long afterId, int limit) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM information_captured"
+                        + " WHERE protocol = :protocol AND id > :afterId ORDER BY id LIMIT :limit")
+                .bind("protocol", protocol.ordinal())
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(ReactiveInformationRepository::toInformation)
+                .all();
+    }
+
+    public Flux<InformationModel> findPageByCapturedAt(Instant afterCapturedAt, long afterId, Instant to, int limit) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM information_captured"
+                        + " WHERE captured_at < :to"
+                        + " AND (captured_at > :afterCapturedAt OR (captured_at = :afterCapturedAt AND id > :afterId))"
+                        + " ORDER BY captured_at, id LIMIT :limit")
+                .bind("to", local(to))
+                .bind("afterCapturedAt", local(afterCapturedAt))
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(ReactiveInformationRepository::toInformation)
+                .all();
+    }
+
+    /**
+     * Rows are pulled as the subscriber requests them, so an export holds a bounded number in memory.
+     */
+    public Flux<InformationModel> streamByCapturedAt(Instant from, Instant to) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM information_captured"
+                        + " WHERE captured_at >= :from AND captured_at < :to ORDER BY captured_at, id")
+                .bind("from", local(from))
+                .bind("to", local(to))
+                .map(ReactiveInformationRepository::toInformation)
+                .all();
+    }
+
+    private static InformationModel toInformation(Readable row) {
+        Integer protocol = row.get("protocol", Integer.class);
+        LocalDateTime capturedAt = row.get("captured_at", LocalDateTime.class);
+        return new InformationModel(
+                row.get("id", Long.class),
+                row.get("client_address", byte[].class),
+                protocol == null ? null : CaptureProtocol.values()[protocol],
+                capturedAt == null ? null : capturedAt.atZone(ZoneId.systemDefault()).toInstant()
+        );
+    }
+
+    private static LocalDateTime local(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+}
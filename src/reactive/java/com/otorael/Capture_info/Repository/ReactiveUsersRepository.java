@@ -0,0 +1,96 @@
+package com.otorael.Capture_info.Repository;
+
+import com.otorael.Capture_info.Model.UserModel;
+import io.r2dbc.spi.Parameter;
+import io.r2dbc.spi.Parameters;
+import io.r2dbc.spi.R2dbcType;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * <p>
+ *     R2DBC counterpart of {@link UsersRepository} for the reactive stack, over the same {@code users} table.
+ *     Written against {@link DatabaseClient} with explicit SQL, as the table is mapped for JPA.
+ * </p>
+ */
+@Repository
+public class ReactiveUsersRepository {
+
+    private static final String COLUMNS = "id, first_name, last_name, email, password";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveUsersRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     *
+     * @param email the normalized email
+     * @return the user, empty if there is none
+     */
+    public Mono<UserModel> findByEmail(String email) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM users WHERE email = :email")
+                .bind("email", email)
+                .map(ReactiveUsersRepository::toUser)
+                .one();
+    }
+
+    /**
+     * Inserts a new user. A duplicate email fails with a
+     * {@link org.springframework.dao.DataIntegrityViolationException}, as with {@link UsersRepository#saveAndFlush}.
+     *
+     * @param user the user to insert, without an id
+     * @return the same user with its generated id
+     */
+    public Mono<UserModel> save(UserModel user) {
+        return databaseClient.sql("INSERT INTO users (first_name, last_name, email, password)"
+                        + " VALUES (:firstName, :lastName, :email, :password)")
+                .bind("firstName", nullable(user.getFirstName()))
+                .bind("lastName", nullable(user.getLastName()))
+                .bind("email", user.getEmail())
+                .bind("password", nullable(user.getPassword()))
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .map(id -> {
+                    user.setId(id);
+                    return user;
+                });
+    }
+
+    /**
+     * Same compare-and-set as {@link UsersRepository#updatePassword}.
+     *
+     * @return 1 if the hash was replaced, 0 otherwise
+     */
+    public Mono<Long> updatePassword(Long id, String oldPassword, String newPassword) {
+        return databaseClient.sql("UPDATE users SET password = :newPassword WHERE id = :id AND password = :oldPassword")
+                .bind("newPassword", newPassword)
+                .bind("id", id)
+                .bind("oldPassword", oldPassword)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     *
+     * @param value a column value that may be null
+     * @return the value typed as VARCHAR, so a null still binds
+     */
+    private static Parameter nullable(String value) {
+        return Parameters.in(R2dbcType.VARCHAR, value);
+    }
+
+    private static UserModel toUser(Readable row) {
+        return new UserModel(
+                row.get("id", Long.class),
+                row.get("last_name", String.class),
+                row.get("first_name", String.class),
+                row.get("email", String.class),
+                row.get("password", String.class)
+        );
+    }
+}
@@ -0,0 +1,66 @@
+package com.otorael.Capture_info.Service.Implementation;
+
+import com.otorael.Capture_info.Model.CaptureProtocol;
+import com.otorael.Capture_info.Model.InformationModel;
+import com.otorael.Capture_info.Network.IpAddresses;
+import com.otorael.Capture_info.Repository.ReactiveInformationRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+
+/**
+ * <p>
+ *     The capture queries of {@link InformationImplementation} on R2DBC, method for method. The
+ *     {@link com.otorael.Capture_info.Service.Information} contract returns lists and takes a consumer, which
+ *     cannot be met without blocking, so the reactive handlers use this directly.
+ * </p>
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveInformationImplementation {
+
+    private final ReactiveInformationRepository reactiveInformationRepository;
+
+    public ReactiveInformationImplementation(ReactiveInformationRepository reactiveInformationRepository) {
+        this.reactiveInformationRepository = reactiveInformationRepository;
+    }
+
+    public Flux<InformationModel> findByIpAddress(String ipAddress, Long afterId, int limit) {
+        byte[] address = IpAddresses.parse(ipAddress);
+        if (address == null) {
+            return Flux.empty();
+        }
+        return reactiveInformationRepository.findPageByClientAddress(address, startAfter(afterId), pageSize(limit));
+    }
+
+    public Flux<InformationModel> findByProtocol(String protocol, Long afterId, int limit) {
+        CaptureProtocol captureProtocol = CaptureProtocol.of(protocol);
+        if (captureProtocol == null) {
+            return Flux.empty();
+        }
+        return reactiveInformationRepository.findPageByProtocol(captureProtocol, startAfter(afterId), pageSize(limit));
+    }
+
+    public Flux<InformationModel> findByCapturedAt(Instant from, Instant to, Instant afterCapturedAt, Long afterId, int limit) {
+        /* the first page seeks to just before "from" so rows captured exactly at "from" are included */
+        if (afterCapturedAt == null || afterCapturedAt.isBefore(from)) {
+            afterCapturedAt = from;
+            afterId = null;
+        }
+        return reactiveInformationRepository.findPageByCapturedAt(afterCapturedAt, startAfter(afterId), to, pageSize(limit));
+    }
+
+    public Flux<InformationModel> streamByCapturedAt(Instant from, Instant to) {
+        return reactiveInformationRepository.streamByCapturedAt(from, to);
+    }
+
+    private static long startAfter(Long afterId) {
+        return afterId == null ? Long.MIN_VALUE : afterId;
+    }
+
+    private static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, InformationImplementation.MAX_PAGE_SIZE));
+    }
+}
@@ -0,0 +1,143 @@
+package com.otorael.Capture_info.Service.Implementation;
+
+import com.otorael.Capture_info.Authentication.PasswordHashingExecutor;
+import com.otorael.Capture_info.Configuration.CaptureMetrics;
+import com.otorael.Capture_info.Model.UserModel;
+import com.otorael.Capture_info.Repository.ReactiveUsersRepository;
+import com.otorael.Capture_info.Service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static com.otorael.Capture_info.Configuration.SuccessLogSampler.SUCCESS;
+
+/**
+ * {@link UserService} for the reactive stack, the same flow as {@link UserImplementation} over R2DBC.
+ * <p>
+ *     No step blocks a thread: BCrypt runs on the bounded {@link PasswordHashingExecutor} pool, which sheds load
+ *     with {@link com.otorael.Capture_info.Authentication.HashingCapacityExceededException} when its queue is
+ *     full, and the lookup and insert are R2DBC calls that continue on whichever thread completes them.
+ * </p>
+ */
+@Service
+@Primary
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserImplementation implements UserService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveUserImplementation.class);
+
+    private final ReactiveUsersRepository reactiveUsersRepository;
+    private final UserLookupCache userLookupCache;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final CaptureMetrics captureMetrics;
+
+    public ReactiveUserImplementation(
+            ReactiveUsersRepository reactiveUsersRepository,
+            UserLookupCache userLookupCache,
+            PasswordHashingExecutor passwordHashingExecutor,
+            CaptureMetrics captureMetrics
+    ) {
+        this.reactiveUsersRepository = reactiveUsersRepository;
+        this.userLookupCache = userLookupCache;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.captureMetrics = captureMetrics;
+        log.info("ReactiveUserImplementation service initialized");
+    }
+
+    /**
+     *
+     * @param userModel the user data to register
+     * @return a future of the registered user if successful, null if email exists
+     */
+    @Override
+    public CompletableFuture<UserModel> registerUser(UserModel userModel) {
+        log.info(SUCCESS, "Processing registration request for email: {}", userModel.getEmail());
+
+        String email = UserLookupCache.normalize(userModel.getEmail());
+
+        /* A cached user means the email is certainly taken, skip the hashing work */
+        if (userLookupCache.get(email) != null) {
+            log.warn("Registration failed - Email already exists: {}", email);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        userModel.setEmail(email);
+        return Mono.fromFuture(() -> passwordHashingExecutor.encode(userModel.getPassword()))
+                .flatMap(encodedPassword -> {
+                    userModel.setPassword(encodedPassword);
+                    /* the unique email constraint rejects duplicates, as on the blocking path */
+                    return reactiveUsersRepository.save(userModel);
+                })
+                .doOnNext(savedUser -> {
+                    userLookupCache.put(savedUser);
+                    log.info(SUCCESS, "User successfully registered - Email: {}", savedUser.getEmail());
+                })
+                .onErrorResume(DataIntegrityViolationException.class, e -> {
+                    log.warn("Registration failed - Email already exists: {}", email);
+                    return Mono.empty();
+                })
+                .toFuture();
+    }
+
+    /**
+     *
+     * @param userModel the login credentials
+     * @return a future of the authenticated user if successful, null if authentication fails
+     */
+    @Override
+    public CompletableFuture<UserModel> loginUser(UserModel userModel) {
+        log.info(SUCCESS, "Processing login request for email: {}", userModel.getEmail());
+
+        String email = UserLookupCache.normalize(userModel.getEmail());
+        UserModel cached = userLookupCache.get(email);
+
+        Mono<UserModel> lookup = cached != null ? Mono.just(cached) : Mono.defer(() -> {
+            long started = System.nanoTime();
+            return reactiveUsersRepository.findByEmail(email)
+                    .doOnNext(userLookupCache::put)
+                    .doFinally(signal -> captureMetrics.dbLookup().record(System.nanoTime() - started, TimeUnit.NANOSECONDS));
+        });
+
+        return lookup
+                .flatMap(user -> Mono.fromFuture(() -> passwordHashingExecutor.matches(userModel.getPassword(), user.getPassword()))
+                        .filter(Boolean::booleanValue)
+                        .map(matches -> {
+                            log.info(SUCCESS, "User successfully logged in - Email: {}", user.getEmail());
+
+                            /* Upgrade a hash made under an older cost without delaying the response */
+                            if (passwordHashingExecutor.needsRehash(user.getPassword())) {
+                                rehashInBackground(user, userModel.getPassword());
+                            }
+                            return user;
+                        }))
+                .switchIfEmpty(Mono.fromRunnable(() ->
+                        log.warn("Login failed - Invalid credentials for email: {}", userModel.getEmail())))
+                .toFuture();
+    }
+
+    /**
+     * Re-encodes the password with the current cost and stores it, unless it changed in the meantime.
+     *
+     * @param user the user that just logged in
+     * @param rawPassword the password that was verified
+     */
+    private void rehashInBackground(UserModel user, String rawPassword) {
+        String oldPassword = user.getPassword();
+
+        Mono.fromFuture(() -> passwordHashingExecutor.encode(rawPassword))
+                .flatMap(newPassword -> reactiveUsersRepository.updatePassword(user.getId(), oldPassword, newPassword))
+                .subscribe(updated -> {
+                    if (updated == 1) {
+                        userLookupCache.invalidate(UserLookupCache.normalize(user.getEmail()));
+                        log.info("Password hash upgraded - Email: {}", user.getEmail());
+                    }
+                }, e -> log.debug("Password rehash skipped - Email: {} - Message: {}", user.getEmail(), e.getMessage()));
+    }
+}
@@ -0,0 +1,71 @@
+package com.otorael.Capture_info.Authentication;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * <p>
+ *     Anyone can register, so a signed-in user must not reach the actuator endpoints that change or reveal
+ *     the node's state; only health and prometheus are open.
+ * </p>
+ */
+@SpringBootTest(properties = "security.admin-emails=Admin@Example.com")
+@AutoConfigureMockMvc
+@ActiveProfiles("loadtest")
+class ActuatorSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtility jwtUtility;
+
+    @Autowired
+    private LoggingSystem loggingSystem;
+
+    @Test
+    void userCannotChangeLogLevels() throws Exception {
+        mockMvc.perform(post("/actuator/loggers/ROOT")
+                        .header("Authorization", "Bearer " + jwtUtility.TokenGeneration("user@example.com"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"configuredLevel\":\"TRACE\"}"))
+                .andExpect(status().isForbidden());
+
+        assertNotEquals(LogLevel.TRACE,
+                loggingSystem.getLoggerConfiguration(LoggingSystem.ROOT_LOGGER_NAME).getEffectiveLevel());
+    }
+
+    @Test
+    void userAndAnonymousCannotReadActuatorEndpoints() throws Exception {
+        mockMvc.perform(get("/actuator/loggers")
+                        .header("Authorization", "Bearer " + jwtUtility.TokenGeneration("user@example.com")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void adminCanReadLoggers() throws Exception {
+        mockMvc.perform(get("/actuator/loggers")
+                        .header("Authorization", "Bearer " + jwtUtility.TokenGeneration("admin@example.com")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void healthStaysOpen() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+}
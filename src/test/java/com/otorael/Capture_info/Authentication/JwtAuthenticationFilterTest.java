@@ -0,0 +1,89 @@
+package com.otorael.Capture_info.Authentication;
+
+import com.otorael.Capture_info.Configuration.CaptureMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * <p>
+ *     The verified token cache only saves the signature check, it never outlives a revocation: the blacklist
+ *     is consulted first, even for a token the cache already holds. A cache hit still counts as a successful
+ *     token check.
+ * </p>
+ */
+class JwtAuthenticationFilterTest {
+
+    private final JwtUtility jwtUtility =
+            new JwtUtility("a-test-secret-that-is-long-enough-for-hs256!", 900_000L, 1_209_600_000L);
+    private final VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(100);
+    private final TokenRevocationStore tokenRevocationStore = new TokenRevocationStore(null, jwtUtility, false, 1 << 16);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter(
+            jwtUtility, verifiedTokenCache, tokenRevocationStore, new CaptureMetrics(meterRegistry), List.of());
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void verifiedTokenIsCached() throws Exception {
+        String token = jwtUtility.TokenGeneration("user@example.com");
+
+        assertEquals(200, filter(token).getStatus());
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals(1, verifiedTokenCache.size());
+
+        SecurityContextHolder.clearContext();
+        assertEquals(200, filter(token).getStatus());
+        assertEquals(1, verifiedTokenCache.hits());
+
+        assertEquals(2, meterRegistry.get("capture.auth.outcome")
+                .tags("operation", "token", "outcome", "success").counter().count());
+        /* only the first check parsed the token */
+        assertEquals(1, meterRegistry.get("capture.auth.phase").tag("phase", "jwt_verify").timer().count());
+    }
+
+    @Test
+    void revocationWinsOverTheCache() throws Exception {
+        String token = jwtUtility.TokenGeneration("user@example.com");
+        filter(token);
+        SecurityContextHolder.clearContext();
+
+        /* revoked behind the cache's back, as a revocation synced from another node is */
+        tokenRevocationStore.revoke(token);
+
+        assertEquals(401, filter(token).getStatus());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals(0, verifiedTokenCache.size());
+    }
+
+    @Test
+    void refreshTokenIsNotAnAccessToken() throws Exception {
+        String refreshToken = jwtUtility.RefreshTokenGeneration("user@example.com", "family", "jti");
+
+        filter(refreshToken);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals(0, verifiedTokenCache.size());
+    }
+
+    private MockHttpServletResponse filter(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/protected/captures");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,87 @@
+package com.otorael.Capture_info.Authentication;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>
+ *     Attempts are charged per client address and per target email, before any hashing is done.
+ * </p>
+ */
+class LoginRateLimiterTest {
+
+    @Test
+    void addressBudgetRunsOut() {
+        LoginRateLimiter limiter = limiter(2, 1_000);
+
+        assertEquals(0, limiter.tryAcquireAddress("203.0.113.7"));
+        assertEquals(0, limiter.tryAcquireAddress("203.0.113.7"));
+        assertTrue(limiter.tryAcquireAddress("203.0.113.7") > 0);
+        /* another address has its own budget */
+        assertEquals(0, limiter.tryAcquireAddress("203.0.113.8"));
+    }
+
+    @Test
+    void emailBudgetIgnoresCaseAndSpaces() {
+        LoginRateLimiter limiter = limiter(2, 1_000);
+
+        assertEquals(0, limiter.tryAcquireEmail("User@Example.com"));
+        assertEquals(0, limiter.tryAcquireEmail(" user@example.com "));
+        assertTrue(limiter.tryAcquireEmail("USER@EXAMPLE.COM") > 0);
+        assertEquals(1, limiter.emailKeys());
+    }
+
+    @Test
+    void unknownAddressesShareOneBudget() {
+        LoginRateLimiter limiter = limiter(2, 1_000);
+
+        assertEquals(0, limiter.tryAcquireAddress(null));
+        assertEquals(0, limiter.tryAcquireAddress(null));
+        assertTrue(limiter.tryAcquireAddress(null) > 0);
+        assertEquals(1, limiter.addressKeys());
+    }
+
+    @Test
+    void disabledLimiterAllowsEverything() {
+        LoginRateLimiter limiter = new LoginRateLimiter(false, 1, 1, 1, 1, 600_000, 1_000);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limiter.tryAcquireAddress("203.0.113.7"));
+            assertEquals(0, limiter.tryAcquireEmail("user@example.com"));
+        }
+        assertEquals(0, limiter.addressKeys());
+    }
+
+    @Test
+    void keysAreCapped() {
+        LoginRateLimiter limiter = limiter(5, 100);
+
+        for (int i = 0; i < 1_000; i++) {
+            limiter.tryAcquireAddress("10.0." + (i / 256) + "." + (i % 256));
+        }
+
+        assertTrue(limiter.addressKeys() <= 100, "keys " + limiter.addressKeys());
+        assertTrue(limiter.evictions() > 0);
+    }
+
+    @Test
+    void sweepDropsRefilledBuckets() throws InterruptedException {
+        /* a token per millisecond and no idle period, so every bucket is idle as soon as it has refilled */
+        LoginRateLimiter limiter = new LoginRateLimiter(true, 1, 60_000, 1, 60_000, 0, 1_000);
+        limiter.tryAcquireAddress("203.0.113.7");
+        limiter.tryAcquireEmail("user@example.com");
+
+        Thread.sleep(20);
+        limiter.evictIdle();
+
+        assertEquals(0, limiter.addressKeys());
+        assertEquals(0, limiter.emailKeys());
+        assertEquals(2, limiter.evictions());
+    }
+
+    private static LoginRateLimiter limiter(long capacity, int maxKeys) {
+        return new LoginRateLimiter(true, capacity, 1, capacity, 1, 600_000, maxKeys);
+    }
+}
@@ -0,0 +1,82 @@
+package com.otorael.Capture_info.Authentication;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.json.JsonCompareMode;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.net.URI;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * <p>
+ *     A throttled client must see 429 with a JSON body and Retry-After, not whatever the error page dispatch
+ *     makes of it. The budget is charged on the path the handler is matched on, so an encoded spelling of a
+ *     throttled path is charged too.
+ * </p>
+ */
+@SpringBootTest(properties = {
+        "security.rate-limit.enabled=true",
+        "security.rate-limit.address.capacity=2",
+        "security.rate-limit.address.refill-per-minute=1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("loadtest")
+class RateLimitFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void throttledAttemptGets429WithBody() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(login("/api/v1/public/login", "203.0.113.7"));
+        }
+
+        mockMvc.perform(login("/api/v1/public/login", "203.0.113.7"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(
+                        "{\"notification\":\"failure\",\"message\":\"Too many attempts, try again later\"}",
+                        JsonCompareMode.STRICT));
+    }
+
+    @Test
+    void encodedPathIsCharged() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(login("/api/v1/public/%6Cogin", "203.0.113.8"));
+        }
+
+        mockMvc.perform(login("/api/v1/public/%6Cogin", "203.0.113.8"))
+                .andExpect(status().isTooManyRequests());
+        /* and the encoded spelling shares the budget of the plain one */
+        mockMvc.perform(login("/api/v1/public/login", "203.0.113.8"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    /**
+     *
+     * @param path the raw request path, sent as it is
+     * @param address the client address
+     */
+    private static MockHttpServletRequestBuilder login(String path, String address) {
+        return post(URI.create(path))
+                .with(request -> {
+                    request.setRemoteAddr(address);
+                    return request;
+                })
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"nobody@example.com\",\"password\":\"secret\"}");
+    }
+}
@@ -0,0 +1,75 @@
+package com.otorael.Capture_info.Authentication;
+
+import com.otorael.Capture_info.CaptureInfoApplication;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link RateLimitFilterTest} against the WebFlux throttle.
+ * <p>
+ *     Runs only in a build with the reactive Maven profile, where the reactive handlers are on the classpath.
+ * </p>
+ * <pre>
+ *     mvn test -Preactive -Dtest=ReactiveRateLimitTest
+ * </pre>
+ */
+@SpringBootTest(
+        classes = CaptureInfoApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.main.web-application-type=reactive",
+                "security.rate-limit.enabled=true",
+                "security.rate-limit.address.capacity=2",
+                "security.rate-limit.address.refill-per-minute=1"
+        }
+)
+@ActiveProfiles(value = {"reactive", "loadtest"}, inheritProfiles = false)
+@EnabledIf("reactiveStackPresent")
+class ReactiveRateLimitTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void encodedPathIsChargedAndThrottledAttemptGetsBody() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            login("/api/v1/public/%6Cogin");
+        }
+
+        HttpResponse<String> throttled = login("/api/v1/public/login");
+        assertEquals(429, throttled.statusCode());
+        assertTrue(throttled.headers().firstValue(HttpHeaders.RETRY_AFTER).isPresent());
+        assertEquals("application/json", throttled.headers().firstValue(HttpHeaders.CONTENT_TYPE).orElse(null));
+        assertEquals("{\"notification\":\"failure\",\"message\":\"Too many attempts, try again later\"}",
+                throttled.body());
+    }
+
+    private HttpResponse<String> login(String path) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                        .header(HttpHeaders.CONTENT_TYPE, "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"email\":\"nobody@example.com\",\"password\":\"secret\"}"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    static boolean reactiveStackPresent() {
+        return ClassUtils.isPresent("com.otorael.Capture_info.Controller.ReactiveUsersController", null);
+    }
+}
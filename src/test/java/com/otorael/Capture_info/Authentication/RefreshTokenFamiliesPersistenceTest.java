@@ -0,0 +1,69 @@
+package com.otorael.Capture_info.Authentication;
+
+import com.otorael.Capture_info.Repository.RefreshTokenFamilyRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * <p>
+ *     With persisted families the database decides: each call runs in its own transaction, as it does in the
+ *     application, so the conditional update is what makes a second rotation of the same token fail. Starting
+ *     a family is one insert, with no read first.
+ * </p>
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("loadtest")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RefreshTokenFamiliesPersistenceTest {
+
+    @Autowired
+    private RefreshTokenFamilyRepository refreshTokenFamilyRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void startIsASingleInsert() {
+        RefreshTokenFamilies families = new RefreshTokenFamilies(refreshTokenFamilyRepository, true, 60_000L);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        families.start("family-3", "jti-1");
+
+        assertEquals(1, statistics.getEntityInsertCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void rotationIsACompareAndSet() {
+        RefreshTokenFamilies families = new RefreshTokenFamilies(refreshTokenFamilyRepository, true, 60_000L);
+        families.start("family-1", "jti-1");
+
+        assertEquals(RefreshTokenFamilies.Rotation.ADVANCED, families.rotate("family-1", "jti-1", "jti-2"));
+        assertEquals(RefreshTokenFamilies.Rotation.REUSED, families.rotate("family-1", "jti-1", "jti-3"));
+        assertEquals(RefreshTokenFamilies.Rotation.REVOKED, families.rotate("family-1", "jti-2", "jti-4"));
+        assertEquals(RefreshTokenFamilies.Rotation.REVOKED, families.rotate("unknown", "jti-1", "jti-5"));
+        assertEquals(0, families.size());
+    }
+
+    @Test
+    void expiredFamiliesArePurged() {
+        RefreshTokenFamilies families = new RefreshTokenFamilies(refreshTokenFamilyRepository, true, 0L);
+        families.start("family-2", "jti-1");
+        families.purgeExpired();
+
+        assertFalse(refreshTokenFamilyRepository.existsById("family-2"));
+    }
+}
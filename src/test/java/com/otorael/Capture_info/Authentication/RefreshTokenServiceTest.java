@@ -0,0 +1,66 @@
+package com.otorael.Capture_info.Authentication;
+
+import com.otorael.Capture_info.Configuration.CaptureMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * <p>
+ *     Rotation with families held in memory: one entry per login however often it is refreshed, and reuse of a
+ *     rotated token ends the whole family.
+ * </p>
+ */
+class RefreshTokenServiceTest {
+
+    private static final long REFRESH_VALIDITY_MILLIS = 1_209_600_000L;
+
+    private final JwtUtility jwtUtility =
+            new JwtUtility("a-test-secret-that-is-long-enough-for-hs256!", 900_000L, REFRESH_VALIDITY_MILLIS);
+    private final CaptureMetrics captureMetrics = new CaptureMetrics(new SimpleMeterRegistry());
+    private final RefreshTokenFamilies families = new RefreshTokenFamilies(null, false, REFRESH_VALIDITY_MILLIS);
+    private final RefreshTokenService service = new RefreshTokenService(jwtUtility, families, captureMetrics);
+
+    @Test
+    void rotatingKeepsOneEntryPerLogin() {
+        RefreshTokenService.TokenPair tokens = service.issue("ada@example.com");
+        for (int i = 0; i < 100; i++) {
+            tokens = service.rotate(tokens.refreshToken());
+            assertNotNull(tokens, "rotation " + i);
+        }
+        assertEquals(1, families.size());
+    }
+
+    @Test
+    void reusedTokenRevokesTheFamily() {
+        RefreshTokenService.TokenPair first = service.issue("ada@example.com");
+        RefreshTokenService.TokenPair second = service.rotate(first.refreshToken());
+        assertNotNull(second);
+
+        assertNull(service.rotate(first.refreshToken()), "an already rotated token must be refused");
+        assertNull(service.rotate(second.refreshToken()), "the rest of the family goes with it");
+
+        /* other logins are not affected */
+        assertNotNull(service.rotate(service.issue("ada@example.com").refreshToken()));
+    }
+
+    @Test
+    void accessTokenCannotBeRotated() {
+        assertNull(service.rotate(service.issue("ada@example.com").accessToken()));
+        assertNull(service.rotate("not a token"));
+    }
+
+    @Test
+    void familyFromBeforeARestartIsTakenOver() {
+        RefreshTokenService.TokenPair tokens = service.issue("ada@example.com");
+        RefreshTokenService restarted = new RefreshTokenService(jwtUtility,
+                new RefreshTokenFamilies(null, false, REFRESH_VALIDITY_MILLIS), captureMetrics);
+
+        RefreshTokenService.TokenPair next = restarted.rotate(tokens.refreshToken());
+        assertNotNull(next);
+        assertNull(restarted.rotate(tokens.refreshToken()));
+    }
+}
@@ -0,0 +1,124 @@
+package com.otorael.Capture_info.Authentication;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>
+ *     Time is passed in, so refills are checked to the nanosecond without sleeping.
+ * </p>
+ */
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long T0 = 1_000 * SECOND;
+
+    @Test
+    void startsFullAndEmpties() {
+        TokenBucket bucket = new TokenBucket(3, 60, T0);
+
+        assertTrue(bucket.tryAcquire(T0));
+        assertTrue(bucket.tryAcquire(T0));
+        assertTrue(bucket.tryAcquire(T0));
+        assertFalse(bucket.tryAcquire(T0));
+    }
+
+    @Test
+    void refillsAtTheConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(1, 60, T0);
+        assertTrue(bucket.tryAcquire(T0));
+
+        /* one token per second, half a second earns half a token */
+        assertFalse(bucket.tryAcquire(T0 + SECOND / 2));
+        assertTrue(bucket.tryAcquire(T0 + SECOND));
+        assertFalse(bucket.tryAcquire(T0 + SECOND));
+    }
+
+    @Test
+    void refusedAttemptsDoNotLoseTheRefill() {
+        TokenBucket bucket = new TokenBucket(1, 60, T0);
+        assertTrue(bucket.tryAcquire(T0));
+
+        for (long t = T0; t < T0 + SECOND; t += SECOND / 10) {
+            assertFalse(bucket.tryAcquire(t));
+        }
+        assertTrue(bucket.tryAcquire(T0 + SECOND));
+    }
+
+    @Test
+    void neverHoldsMoreThanItsCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 60, T0);
+        assertTrue(bucket.tryAcquire(T0));
+        assertTrue(bucket.tryAcquire(T0));
+
+        long later = T0 + 3_600 * SECOND;
+        assertTrue(bucket.tryAcquire(later));
+        assertTrue(bucket.tryAcquire(later));
+        assertFalse(bucket.tryAcquire(later));
+    }
+
+    @Test
+    void tellsHowLongUntilTheNextToken() {
+        TokenBucket fast = new TokenBucket(1, 60, T0);
+        fast.tryAcquire(T0);
+        assertEquals(1, fast.secondsUntilNextToken(T0));
+
+        TokenBucket slow = new TokenBucket(1, 1, T0);
+        slow.tryAcquire(T0);
+        assertEquals(60, slow.secondsUntilNextToken(T0));
+        assertEquals(30, slow.secondsUntilNextToken(T0 + 30 * SECOND));
+    }
+
+    @Test
+    void idleOnlyOnceFullAndUntouched() {
+        long idle = 600 * SECOND;
+        TokenBucket bucket = new TokenBucket(2, 60, T0);
+        assertTrue(bucket.tryAcquire(T0));
+
+        assertFalse(bucket.isIdle(T0 + SECOND, idle));
+        assertTrue(bucket.isIdle(T0 + idle, idle));
+    }
+
+    @Test
+    void concurrentAttemptsNeverOverspend() throws Exception {
+        TokenBucket bucket = new TokenBucket(1_000, 1, T0);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 500; i++) {
+                        if (bucket.tryAcquire(T0)) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1_000, granted.get());
+    }
+}
@@ -0,0 +1,111 @@
+package com.otorael.Capture_info.Authentication;
+
+import com.otorael.Capture_info.Repository.RevokedTokenRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>
+ *     Two stores on one table stand in for two nodes. Whatever their clocks say, a revocation written by one
+ *     reaches the other on its next sync. A revocation is one insert, with no read first.
+ * </p>
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("loadtest")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TokenRevocationSyncTest {
+
+    private final JwtUtility jwtUtility = new JwtUtility("a-test-secret-that-is-long-enough-for-hs256!", 900_000L, 1_209_600_000L);
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void cleanUp() {
+        revokedTokenRepository.deleteAll();
+    }
+
+    @Test
+    void revocationReachesTheOtherNode() {
+        TokenRevocationStore first = store();
+        TokenRevocationStore second = store();
+
+        first.revoke("token-a");
+        assertFalse(second.isRevoked("token-a"));
+
+        second.sync();
+        assertTrue(second.isRevoked("token-a"));
+    }
+
+    @Test
+    void lateCommitBehindTheNewestRowIsPickedUp() {
+        TokenRevocationStore first = store();
+        TokenRevocationStore second = store();
+        first.revoke("token-a");
+        second.sync();
+
+        /* stamped before token-a but only visible now, as a slow transaction on another node would be */
+        Instant stampedEarlier = revokedTokenRepository.findAll().get(0).getRevokedAt()
+                .minus(TokenRevocationStore.SYNC_OVERLAP.dividedBy(2));
+        jdbcTemplate.update("insert into revoked_tokens (token_digest, revoked_at, expires_at) values (?, ?, ?)",
+                TokenDigest.of("token-b").toHex(),
+                Timestamp.from(stampedEarlier),
+                Timestamp.from(Instant.now().plusSeconds(600)));
+
+        second.sync();
+        assertTrue(second.isRevoked("token-b"));
+    }
+
+    @Test
+    void revocationIsASingleInsert() {
+        TokenRevocationStore store = store();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        store.revoke("token-a");
+
+        assertEquals(1, statistics.getEntityInsertCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void revokingTwiceKeepsOneRow() {
+        store().revoke("token-a");
+        /* another node, which has not synced yet */
+        TokenRevocationStore other = store();
+        other.revoke("token-a");
+
+        assertTrue(other.isRevoked("token-a"));
+        assertEquals(1, revokedTokenRepository.count());
+    }
+
+    private TokenRevocationStore store() {
+        TokenRevocationStore store = new TokenRevocationStore(revokedTokenRepository, jwtUtility, true, 1 << 16);
+        store.load();
+        return store;
+    }
+}
@@ -0,0 +1,83 @@
+package com.otorael.Capture_info.Authentication;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>
+ *     A cached token is only served until its own exp, and a full cache makes room without growing.
+ * </p>
+ */
+class VerifiedTokenCacheTest {
+
+    private final UsernamePasswordAuthenticationToken authentication =
+            new UsernamePasswordAuthenticationToken("user@example.com", null, List.of());
+
+    @Test
+    void servesTokenUntilItsExpiry() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        cache.put("token", authentication, System.currentTimeMillis() + 60_000);
+
+        assertSame(authentication, cache.get("token"));
+        assertNull(cache.get("other-token"));
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    void expiredTokenIsAMissAndIsDropped() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        cache.put("token", authentication, System.currentTimeMillis() - 1);
+
+        assertNull(cache.get("token"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void invalidatedTokenIsAMiss() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        cache.put("token", authentication, System.currentTimeMillis() + 60_000);
+        cache.invalidate("token");
+
+        assertNull(cache.get("token"));
+    }
+
+    @Test
+    void fullCachePurgesExpiredEntriesFirst() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 5; i++) {
+            cache.put("expired-" + i, authentication, now - 1);
+            cache.put("live-" + i, authentication, now + 60_000);
+        }
+
+        cache.put("new", authentication, now + 60_000);
+
+        assertEquals(6, cache.size());
+        assertEquals(5, cache.evictions());
+        for (int i = 0; i < 5; i++) {
+            assertNotNull(cache.get("live-" + i));
+        }
+        assertNotNull(cache.get("new"));
+    }
+
+    @Test
+    void fullCacheOfLiveEntriesStaysBounded() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        long expiresAt = System.currentTimeMillis() + 60_000;
+        for (int i = 0; i < 100; i++) {
+            cache.put("live-" + i, authentication, expiresAt);
+        }
+
+        assertTrue(cache.size() <= 10, "size " + cache.size());
+        assertNotNull(cache.get("live-99"));
+    }
+}
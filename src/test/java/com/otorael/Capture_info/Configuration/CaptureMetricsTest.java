@@ -0,0 +1,48 @@
+package com.otorael.Capture_info.Configuration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * <p>
+ *     Outcomes are counted on every token check, so each (operation, outcome) counter is registered once and
+ *     looked up from then on.
+ * </p>
+ */
+class CaptureMetricsTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CaptureMetrics captureMetrics = new CaptureMetrics(meterRegistry);
+
+    @Test
+    void outcomesAreCountedPerOperationAndOutcome() {
+        captureMetrics.authOutcome("token", "success");
+        captureMetrics.authOutcome("token", "success");
+        captureMetrics.authOutcome("token", "invalid");
+        captureMetrics.authOutcome("login", "success");
+
+        assertEquals(2, outcome("token", "success").count());
+        assertEquals(1, outcome("token", "invalid").count());
+        assertEquals(1, outcome("login", "success").count());
+        assertEquals(3, meterRegistry.find("capture.auth.outcome").counters().size());
+    }
+
+    @Test
+    void counterIsRegisteredOnce() {
+        captureMetrics.authOutcome("token", "success");
+        Counter first = outcome("token", "success");
+        captureMetrics.authOutcome("token", "success");
+
+        assertSame(first, outcome("token", "success"));
+        assertEquals(2, first.count());
+    }
+
+    private Counter outcome(String operation, String outcome) {
+        return meterRegistry.get("capture.auth.outcome").tags("operation", operation, "outcome", outcome).counter();
+    }
+}
@@ -0,0 +1,51 @@
+package com.otorael.Capture_info.Configuration;
+
+import com.otorael.Capture_info.ResponseDTO.CapturePageDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>
+ *     The native image only has what is registered, a DTO or jjwt class missing here fails at runtime only.
+ * </p>
+ */
+class CaptureRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    CaptureRuntimeHintsTest() {
+        new CaptureRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registersBoundTypesForJackson() throws NoSuchMethodException {
+        for (Class<?> type : CaptureRuntimeHints.BOUND_TYPES) {
+            assertTrue(RuntimeHintsPredicates.reflection().onType(type).test(hints), type.getName());
+        }
+        /* nested types are reached through the getters */
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(CapturePageDTO.class.getMethod("getCaptures")).test(hints));
+    }
+
+    @Test
+    void registersJjwtImplementations() {
+        for (String implementation : CaptureRuntimeHints.JJWT_IMPLEMENTATIONS) {
+            assertTrue(RuntimeHintsPredicates.reflection()
+                    .onType(TypeReference.of(implementation))
+                    .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)
+                    .test(hints), implementation);
+        }
+    }
+
+    @Test
+    void registersPinListAndConnectionProxy() {
+        assertTrue(RuntimeHintsPredicates.resource().forResource("lists/PinCode.txt").test(hints));
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(ConnectionProxy.class).test(hints));
+    }
+}
@@ -0,0 +1,133 @@
+package com.otorael.Capture_info.Configuration;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * <p>
+ *     Two in-memory H2 databases stand in for the primary and a replica. Each holds a row naming itself,
+ *     so reading it back shows which one a transaction was routed to.
+ * </p>
+ */
+class ReplicaRoutingDataSourceTest {
+
+    /**
+     * A replica that can be switched off, as if it went away between probes.
+     */
+    private static final class SwitchableDataSource extends DelegatingDataSource {
+
+        private volatile boolean down;
+
+        private SwitchableDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (down) {
+                throw new SQLException("Connection refused");
+            }
+            return super.getConnection();
+        }
+    }
+
+    private SwitchableDataSource replica;
+    private ReplicaRoutingDataSource routing;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        replica = new SwitchableDataSource(database("replica"));
+        new JdbcTemplate(replica).execute("CREATE TABLE replica_lag (seconds INT)");
+        new JdbcTemplate(replica).update("INSERT INTO replica_lag VALUES (0)");
+
+        routing = new ReplicaRoutingDataSource(primary, Map.of("replica-0", replica), 5000,
+                "SELECT seconds FROM replica_lag", 1);
+        routing.afterPropertiesSet();
+        routing.checkReplicas();
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        routing.destroy();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        assertEquals(1, routing.healthyReplicas());
+        assertEquals("replica", readOnly.execute(status -> servedBy()));
+        assertEquals("primary", readWrite.execute(status -> servedBy()));
+    }
+
+    @Test
+    void onPrimaryOverridesReadOnly() {
+        assertEquals("primary", readOnly.execute(status -> ReplicaRoutingDataSource.onPrimary(this::servedBy)));
+    }
+
+    @Test
+    void laggingReplicaLeavesRotationUntilItCatchesUp() {
+        new JdbcTemplate(replica).update("UPDATE replica_lag SET seconds = 30");
+        routing.checkReplicas();
+
+        assertEquals(0, routing.healthyReplicas());
+        assertEquals(30_000, routing.maxObservedLagMillis());
+        assertEquals("primary", readOnly.execute(status -> servedBy()));
+
+        new JdbcTemplate(replica).update("UPDATE replica_lag SET seconds = 1");
+        routing.checkReplicas();
+
+        assertEquals(1, routing.healthyReplicas());
+        assertEquals("replica", readOnly.execute(status -> servedBy()));
+    }
+
+    @Test
+    void unreachableReplicaFailsOverToThePrimary() {
+        replica.down = true;
+
+        assertEquals("primary", readOnly.execute(status -> servedBy()));
+        assertEquals(0, routing.healthyReplicas());
+
+        replica.down = false;
+        routing.checkReplicas();
+
+        assertEquals("replica", readOnly.execute(status -> servedBy()));
+    }
+
+    private String servedBy() {
+        return jdbcTemplate.queryForObject("SELECT name FROM served_by", String.class);
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE served_by (name VARCHAR(16))");
+        jdbcTemplate.update("INSERT INTO served_by VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,62 @@
+package com.otorael.Capture_info.Controller;
+
+import com.otorael.Capture_info.Authentication.JwtUtility;
+import com.otorael.Capture_info.Service.Information;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.json.JsonCompareMode;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Instant;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * <p>
+ *     An export the database fails to serve must not look like an empty range.
+ * </p>
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("loadtest")
+class CaptureExportFailureTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtility jwtUtility;
+
+    @MockitoBean
+    private Information information;
+
+    @Test
+    void databaseFailureIsAnError() throws Exception {
+        doThrow(new DataAccessResourceFailureException("connection lost"))
+                .when(information).streamByCapturedAt(any(), any(), any());
+
+        MvcResult started = mockMvc.perform(get("/api/v1/protected/captures/export")
+                        .header("Authorization", "Bearer " + jwtUtility.TokenGeneration("user@example.com"))
+                        .param("from", Instant.EPOCH.toString())
+                        .param("to", Instant.now().toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isInternalServerError())
+                .andExpect(content().json(
+                        "{\"notification\":\"failure\",\"message\":\"Captures could not be read, try again later\"}",
+                        JsonCompareMode.STRICT));
+    }
+}
@@ -0,0 +1,103 @@
+package com.otorael.Capture_info.Controller;
+
+import com.otorael.Capture_info.Authentication.JwtUtility;
+import com.otorael.Capture_info.Model.CaptureProtocol;
+import com.otorael.Capture_info.Model.InformationModel;
+import com.otorael.Capture_info.Repository.InformationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * <p>
+ *     The export streams rows through a database cursor, on every database the application runs against.
+ * </p>
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("loadtest")
+class CaptureExportTest {
+
+    private static final Instant START = Instant.parse("2025-03-01T00:00:00Z");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtility jwtUtility;
+
+    @Autowired
+    private InformationRepository informationRepository;
+
+    @AfterEach
+    void cleanUp() {
+        informationRepository.deleteAll();
+    }
+
+    @Test
+    void lastPageHasNoContinuation() throws Exception {
+        informationRepository.saveAll(List.of(
+                new InformationModel(1L, new byte[]{10, 0, 0, 1}, CaptureProtocol.HTTP, START),
+                new InformationModel(2L, new byte[]{10, 0, 0, 2}, CaptureProtocol.HTTP, START.plusSeconds(60)),
+                new InformationModel(3L, new byte[]{10, 0, 0, 3}, CaptureProtocol.HTTP, START.plusSeconds(120))
+        ));
+
+        mockMvc.perform(pageOf(null))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.captures.length()").value(2))
+                .andExpect(jsonPath("$.nextAfterId").value(2));
+        mockMvc.perform(pageOf(2L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.captures.length()").value(1))
+                .andExpect(jsonPath("$.nextAfterId").doesNotExist());
+    }
+
+    @Test
+    void exportsEveryCaptureInTheRange() throws Exception {
+        informationRepository.saveAll(List.of(
+                new InformationModel(1L, new byte[]{10, 0, 0, 1}, CaptureProtocol.HTTP, START),
+                new InformationModel(2L, new byte[]{10, 0, 0, 2}, CaptureProtocol.HTTPS, START.plusSeconds(60)),
+                new InformationModel(3L, new byte[]{10, 0, 0, 3}, CaptureProtocol.HTTP, START.plusSeconds(3600))
+        ));
+
+        MvcResult started = mockMvc.perform(get("/api/v1/protected/captures/export")
+                        .header("Authorization", "Bearer " + jwtUtility.TokenGeneration("user@example.com"))
+                        .param("from", START.toString())
+                        .param("to", START.plusSeconds(3600).toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString().strip().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("10.0.0.1"), lines[0]);
+        assertTrue(lines[1].contains("10.0.0.2"), lines[1]);
+    }
+
+    private MockHttpServletRequestBuilder pageOf(Long afterId) {
+        MockHttpServletRequestBuilder page = get("/api/v1/protected/captures")
+                .header("Authorization", "Bearer " + jwtUtility.TokenGeneration("user@example.com"))
+                .param("protocol", "http")
+                .param("limit", "2");
+        return afterId == null ? page : page.param("afterId", afterId.toString());
+    }
+}
@@ -0,0 +1,100 @@
+package com.otorael.Capture_info.Controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * <p>
+ *     Batch jobs send hundreds of thousands of PINs per call, so the stream endpoint must take bare lines and
+ *     NDJSON alike and answer while the body is still arriving.
+ * </p>
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("loadtest")
+class PinCodeStreamTest {
+
+    private static final String STREAM = "/api/v1/public/pin-check/stream";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void scoresNdjsonInput() throws Exception {
+        mockMvc.perform(post(STREAM)
+                        .contentType("application/x-ndjson")
+                        .content("{\"pin\":\"1234\"}\n{\"pin\":\"12a4\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("""
+                        {"pin":"1234","rank":1,"verdict":"weak"}
+                        {"line":2,"verdict":"invalid"}
+                        """));
+    }
+
+    @Test
+    void scoresBareLines() throws Exception {
+        mockMvc.perform(post(STREAM)
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("1234\r\n\n123\n1234"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("""
+                        {"pin":"1234","rank":1,"verdict":"weak"}
+                        {"line":3,"verdict":"invalid"}
+                        {"pin":"1234","rank":1,"verdict":"weak"}
+                        """));
+    }
+
+    @Test
+    void answersBeforeTheBodyEnds() throws Exception {
+        byte[] firstPart = "1234\n".repeat(20_000).getBytes(StandardCharsets.US_ASCII);
+
+        try (Socket socket = new Socket("localhost", port)) {
+            /* a buffered endpoint never answers until the body is finished, which this test holds back */
+            socket.setSoTimeout(10_000);
+            OutputStream request = socket.getOutputStream();
+            request.write(("POST " + STREAM + " HTTP/1.1\r\n"
+                    + "Host: localhost\r\n"
+                    + "Content-Type: text/plain\r\n"
+                    + "Transfer-Encoding: chunked\r\n"
+                    + "Connection: close\r\n\r\n"
+                    + Integer.toHexString(firstPart.length) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            request.write(firstPart);
+            request.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+            request.flush();
+
+            BufferedReader response = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            String statusLine = response.readLine();
+            assertTrue(statusLine.startsWith("HTTP/1.1 200"), statusLine);
+            String line = response.readLine();
+            while (!line.startsWith("{")) {
+                line = response.readLine();
+            }
+            assertTrue(line.startsWith("{\"pin\":\"1234\",\"rank\":1"), line);
+
+            request.write("0\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+            request.flush();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.otorael.Capture_info.Controller;
+
+import com.otorael.Capture_info.Repository.UsersRepository;
+import com.otorael.Capture_info.Service.Implementation.UserLookupCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * <p>
+ *     Only a taken email is a conflict, any other reason the database refuses a user is not.
+ * </p>
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("loadtest")
+class RegistrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UsersRepository usersRepository;
+
+    @Autowired
+    private UserLookupCache userLookupCache;
+
+    @AfterEach
+    void cleanUp() {
+        usersRepository.deleteAll();
+    }
+
+    @Test
+    void missingEmailIsABadRequest() throws Exception {
+        register("{\"password\":\"secret\"}")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Email and password are required"));
+        register("{\"email\":\"  \",\"password\":\"secret\"}")
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void takenEmailIsAConflictWhateverItsCase() throws Exception {
+        register("{\"email\":\"Taken@Example.com\",\"password\":\"secret\"}")
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.email").value("taken@example.com"));
+        /* as if another node had registered it, so the unique constraint has to catch it */
+        userLookupCache.invalidate("taken@example.com");
+        register("{\"email\":\"taken@example.com \",\"password\":\"other\"}")
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Email is taken"));
+    }
+
+    @Test
+    void otherViolationsAreNotAConflict() throws Exception {
+        String name = "x".repeat(300);
+        register("{\"email\":\"long@example.com\",\"password\":\"secret\",\"firstName\":\"" + name + "\"}")
+                .andExpect(status().isInternalServerError());
+    }
+
+    private ResultActions register(String body) throws Exception {
+        MvcResult started = mockMvc.perform(post("/api/v1/public/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started));
+    }
+}
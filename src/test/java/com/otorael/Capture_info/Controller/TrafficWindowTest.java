@@ -0,0 +1,67 @@
+package com.otorael.Capture_info.Controller;
+
+import com.otorael.Capture_info.Authentication.JwtUtility;
+import com.otorael.Capture_info.Service.TrafficAggregator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * <p>
+ *     A window longer than the aggregator keeps is answered over everything it keeps, however long it is.
+ * </p>
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("loadtest")
+class TrafficWindowTest {
+
+    /* the first whole number of seconds whose millisecond count no longer fits in a long */
+    private static final long WRAPPING_WINDOW = Long.MAX_VALUE / 1000 + 1;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtility jwtUtility;
+
+    @Autowired
+    private TrafficAggregator trafficAggregator;
+
+    @BeforeEach
+    void capture() {
+        trafficAggregator.record("10.0.0.1", "HTTP");
+    }
+
+    @Test
+    void hugeWindowIsCappedForRates() throws Exception {
+        mockMvc.perform(traffic("/api/v1/protected/traffic/rates", WRAPPING_WINDOW))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.windowSeconds", greaterThan(0)))
+                .andExpect(jsonPath("$.ratePerSecond", greaterThan(0.0)));
+    }
+
+    @Test
+    void hugeWindowIsCappedForTopTalkers() throws Exception {
+        mockMvc.perform(traffic("/api/v1/protected/traffic/top", Long.MAX_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.windowSeconds", greaterThan(0)))
+                .andExpect(jsonPath("$.counts[0].ratePerSecond", greaterThan(0.0)));
+    }
+
+    private MockHttpServletRequestBuilder traffic(String path, long windowSeconds) {
+        return get(path)
+                .header("Authorization", "Bearer " + jwtUtility.TokenGeneration("user@example.com"))
+                .param("windowSeconds", Long.toString(windowSeconds));
+    }
+}
@@ -0,0 +1,175 @@
+package com.otorael.Capture_info.LoadTest;
+
+import com.otorael.Capture_info.CaptureInfoApplication;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ActiveProfilesResolver;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * End-to-end load test for capacity planning, off by default.
+ * <p>
+ *     Boots the whole application on a random port against in-memory H2 and drives
+ *     {@code /public/register}, {@code /public/login} and {@code /public/get-info} over real HTTP.
+ *     Prints throughput and p50/p99/p99.9 latency per endpoint and writes the same figures to
+ *     {@code target/loadtest-report.json}.
+ * </p>
+ * <pre>
+ *     mvn test -Dtest=CaptureLoadTest -Dloadtest=true
+ *         -Dloadtest.concurrency=32 -Dloadtest.requests=2000
+ *         -Dloadtest.profiles=loadtest,virtual     (compare against virtual-thread mode)
+ * </pre>
+ */
+@SpringBootTest(classes = CaptureInfoApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles(resolver = CaptureLoadTest.ProfilesResolver.class)
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class CaptureLoadTest {
+
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 16);
+    private static final int REQUESTS = Integer.getInteger("loadtest.requests", 500);
+
+    /**
+     * Active profiles from -Dloadtest.profiles, so the same run can be repeated in another execution mode.
+     */
+    static class ProfilesResolver implements ActiveProfilesResolver {
+        @Override
+        public String[] resolve(Class<?> testClass) {
+            return System.getProperty("loadtest.profiles", "loadtest").split(",");
+        }
+    }
+
+    private record PhaseResult(String name, int requests, int errors, double seconds, LatencyRecorder latencies) {
+
+        double throughput() {
+            return requests / seconds;
+        }
+
+        String toJson() {
+            return String.format(
+                    "{\"endpoint\":\"%s\",\"requests\":%d,\"errors\":%d,\"throughputPerSecond\":%.1f,"
+                            + "\"p50Micros\":%d,\"p99Micros\":%d,\"p999Micros\":%d}",
+                    name, requests, errors, throughput(),
+                    latencies.percentileMicros(50), latencies.percentileMicros(99), latencies.percentileMicros(99.9));
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void publicEndpointsUnderLoad() throws Exception {
+        String base = "http://localhost:" + port + "/api/v1/public";
+
+        List<PhaseResult> results = new ArrayList<>();
+        results.add(run("register", i -> post(base + "/register", credentials(i, true)), 201));
+        results.add(run("login", i -> post(base + "/login", credentials(i, false)), 200));
+        results.add(run("get-info", i -> HttpRequest.newBuilder(URI.create(base + "/get-info"))
+                .header("X-Forwarded-For", "198.51.100." + (i % 250))
+                .GET()
+                .build(), 200));
+
+        report(results);
+
+        for (PhaseResult result : results) {
+            assertEquals(0, result.errors(), result.name() + " had failed requests");
+        }
+    }
+
+    private PhaseResult run(String name, IntFunction<HttpRequest> requestFor, int expectedStatus) throws Exception {
+        AtomicInteger next = new AtomicInteger();
+        List<Future<LatencyRecorder>> workers = new ArrayList<>();
+
+        long started = System.nanoTime();
+        try (ExecutorService pool = Executors.newFixedThreadPool(CONCURRENCY)) {
+            for (int w = 0; w < CONCURRENCY; w++) {
+                workers.add(pool.submit(() -> {
+                    LatencyRecorder recorder = new LatencyRecorder();
+                    int i;
+                    while ((i = next.getAndIncrement()) < REQUESTS) {
+                        HttpRequest request = requestFor.apply(i);
+                        long sent = System.nanoTime();
+                        int status = send(request);
+                        recorder.record(System.nanoTime() - sent, status == expectedStatus);
+                    }
+                    return recorder;
+                }));
+            }
+
+            LatencyRecorder merged = new LatencyRecorder();
+            for (Future<LatencyRecorder> worker : workers) {
+                merged.merge(worker.get());
+            }
+            double seconds = (System.nanoTime() - started) / (double) TimeUnit.SECONDS.toNanos(1);
+            return new PhaseResult(name, merged.count(), merged.errors(), seconds, merged);
+        }
+    }
+
+    private int send(HttpRequest request) {
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    private static HttpRequest post(String url, String json) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static String credentials(int i, boolean withNames) {
+        String names = withNames ? "\"firstName\":\"Load\",\"lastName\":\"User" + i + "\"," : "";
+        return "{" + names + "\"email\":\"load-" + i + "@example.com\",\"password\":\"Secret-" + i + "\"}";
+    }
+
+    private static void report(List<PhaseResult> results) throws IOException {
+        StringBuilder table = new StringBuilder(String.format(
+                "%nLoad test - concurrency %d, %d requests per endpoint, profiles %s%n%-10s %10s %8s %12s %10s %10s %10s%n",
+                CONCURRENCY, REQUESTS, System.getProperty("loadtest.profiles", "loadtest"),
+                "endpoint", "requests", "errors", "req/s", "p50 us", "p99 us", "p99.9 us"));
+        List<String> json = new ArrayList<>();
+
+        for (PhaseResult result : results) {
+            table.append(String.format("%-10s %10d %8d %12.1f %10d %10d %10d%n",
+                    result.name(), result.requests(), result.errors(), result.throughput(),
+                    result.latencies().percentileMicros(50),
+                    result.latencies().percentileMicros(99),
+                    result.latencies().percentileMicros(99.9)));
+            json.add(result.toJson());
+        }
+
+        System.out.println(table);
+        Files.createDirectories(Path.of("target"));
+        Files.writeString(Path.of("target", "loadtest-report.json"), "[" + String.join(",", json) + "]\n");
+    }
+}
@@ -0,0 +1,57 @@
+package com.otorael.Capture_info.LoadTest;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ *     Collects every request latency of one load phase and reports exact percentiles once the phase is over.
+ *     Each worker thread records into its own recorder, the phase merges them at the end.
+ * </p>
+ */
+final class LatencyRecorder {
+
+    private long[] latencies = new long[1024];
+    private int count;
+    private int errors;
+
+    void record(long nanos, boolean success) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = nanos;
+        if (!success) {
+            errors++;
+        }
+    }
+
+    void merge(LatencyRecorder other) {
+        for (int i = 0; i < other.count; i++) {
+            record(other.latencies[i], true);
+        }
+        errors += other.errors;
+    }
+
+    int count() {
+        return count;
+    }
+
+    int errors() {
+        return errors;
+    }
+
+    /**
+     *
+     * @param percentile between 0 and 100
+     * @return the latency in microseconds at that percentile
+     */
+    long percentileMicros(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return TimeUnit.NANOSECONDS.toMicros(sorted[Math.max(0, Math.min(index, count - 1))]);
+    }
+}
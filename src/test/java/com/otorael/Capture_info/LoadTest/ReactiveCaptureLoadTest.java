@@ -0,0 +1,26 @@
+package com.otorael.Capture_info.LoadTest;
+
+import com.otorael.Capture_info.CaptureInfoApplication;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * {@link CaptureLoadTest} against the WebFlux and R2DBC handlers, for comparing the two stacks.
+ * <p>
+ *     The test context picks servlet whenever Spring MVC is on the classpath, so the web application type is
+ *     set here rather than taken from the reactive profile. Needs a build with the reactive Maven profile.
+ * </p>
+ * <pre>
+ *     mvn test -Preactive -Dtest=ReactiveCaptureLoadTest -Dloadtest=true -Dloadtest.reactive=true
+ * </pre>
+ */
+@SpringBootTest(
+        classes = CaptureInfoApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.main.web-application-type=reactive"
+)
+@ActiveProfiles(value = {"reactive", "loadtest"}, inheritProfiles = false)
+@EnabledIfSystemProperty(named = "loadtest.reactive", matches = "true")
+class ReactiveCaptureLoadTest extends CaptureLoadTest {
+}
@@ -0,0 +1,102 @@
+package com.otorael.Capture_info.Network;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>
+ *     Trusted proxy blocks decide whose forwarded headers are believed, an off-by-one bit trusts a stranger.
+ * </p>
+ */
+class CidrTrieTest {
+
+    @Test
+    void emptyTrieContainsNothing() {
+        CidrTrie trie = new CidrTrie(32);
+
+        assertFalse(contains(trie, "0.0.0.0"));
+        assertFalse(contains(trie, "255.255.255.255"));
+    }
+
+    @Test
+    void zeroPrefixContainsEverything() {
+        CidrTrie v4 = trie(32, "0.0.0.0", 0);
+        CidrTrie v6 = trie(128, "::", 0);
+
+        assertTrue(contains(v4, "0.0.0.0"));
+        assertTrue(contains(v4, "255.255.255.255"));
+        assertTrue(contains(v6, "::"));
+        assertTrue(contains(v6, "ffff:ffff:ffff:ffff:ffff:ffff:ffff:ffff"));
+    }
+
+    @Test
+    void fullPrefixContainsOnlyThatAddress() {
+        CidrTrie v4 = trie(32, "203.0.113.7", 32);
+        CidrTrie v6 = trie(128, "2001:db8::1", 128);
+
+        assertTrue(contains(v4, "203.0.113.7"));
+        assertFalse(contains(v4, "203.0.113.6"));
+        assertFalse(contains(v4, "203.0.113.8"));
+        assertTrue(contains(v6, "2001:db8::1"));
+        assertFalse(contains(v6, "2001:db8::"));
+        assertFalse(contains(v6, "2001:db8::2"));
+    }
+
+    @Test
+    void matchesPrefixBoundaries() {
+        CidrTrie v4 = trie(32, "10.0.0.0", 8);
+        assertTrue(contains(v4, "10.0.0.0"));
+        assertTrue(contains(v4, "10.255.255.255"));
+        assertFalse(contains(v4, "11.0.0.0"));
+        assertFalse(contains(v4, "9.255.255.255"));
+
+        CidrTrie v6 = trie(128, "fc00::", 7);
+        assertTrue(contains(v6, "fd12:3456::1"));
+        assertFalse(contains(v6, "fe00::"));
+
+        /* a prefix that ends in the low word */
+        CidrTrie deep = trie(128, "2001:db8:0:0:8000::", 65);
+        assertTrue(contains(deep, "2001:db8::8000:0:0:1"));
+        assertFalse(contains(deep, "2001:db8::1"));
+    }
+
+    @Test
+    void holdsManyBlocks() {
+        CidrTrie trie = new CidrTrie(32);
+        long[] words = new long[2];
+        for (int i = 0; i < 200; i++) {
+            IpAddresses.parse("192.0." + i + ".1", 0, ("192.0." + i + ".1").length(), words);
+            trie.add(words[0], words[1], 32);
+        }
+
+        for (int i = 0; i < 200; i++) {
+            assertTrue(contains(trie, "192.0." + i + ".1"));
+            assertFalse(contains(trie, "192.0." + i + ".2"));
+        }
+    }
+
+    @Test
+    void rejectsOutOfRangePrefixes() {
+        CidrTrie trie = new CidrTrie(32);
+
+        assertThrows(IllegalArgumentException.class, () -> trie.add(0, 0, 33));
+        assertThrows(IllegalArgumentException.class, () -> trie.add(0, 0, -1));
+    }
+
+    private static CidrTrie trie(int bits, String address, int prefixLength) {
+        long[] words = new long[2];
+        IpAddresses.parse(address, 0, address.length(), words);
+        CidrTrie trie = new CidrTrie(bits);
+        trie.add(words[0], words[1], prefixLength);
+        return trie;
+    }
+
+    private static boolean contains(CidrTrie trie, String address) {
+        long[] words = new long[2];
+        IpAddresses.parse(address, 0, address.length(), words);
+        return trie.contains(words[0], words[1]);
+    }
+}
@@ -0,0 +1,68 @@
+package com.otorael.Capture_info.Network;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * <p>
+ *     Forwarded headers are only believed as far as trusted proxies vouch for them.
+ * </p>
+ */
+class ClientAddressResolverTest {
+
+    private final ClientAddressResolver resolver =
+            new ClientAddressResolver(List.of("127.0.0.0/8", "::1/128", "10.0.0.0/8"));
+
+    @Test
+    void untrustedPeerIsTheClient() {
+        ClientAddressResolver.ClientAddress client = resolve("203.0.113.7", "198.51.100.1", "https");
+
+        assertEquals("203.0.113.7", client.text());
+        assertEquals("http", client.protocol());
+    }
+
+    @Test
+    void walksPastTrustedHops() {
+        ClientAddressResolver.ClientAddress client = resolve("127.0.0.1", "198.51.100.1, 10.0.0.2", "https");
+
+        assertEquals("198.51.100.1", client.text());
+        assertEquals("https", client.protocol());
+    }
+
+    @Test
+    void stopsAtTheFirstUntrustedHop() {
+        assertEquals("203.0.113.9", resolve("127.0.0.1", "198.51.100.1, 203.0.113.9, 10.0.0.2", null).text());
+        /* whatever a client put in front of its own address is ignored */
+        assertEquals("198.51.100.1", resolve("127.0.0.1", "garbage, 198.51.100.1", null).text());
+    }
+
+    @Test
+    void garbageHopIsNotTheProxy() {
+        assertNull(resolve("127.0.0.1", "garbage", null).address());
+        assertNull(resolve("127.0.0.1", "198.51.100.1, unknown, 10.0.0.2", null).address());
+        assertNull(resolve("127.0.0.1", "", null).address());
+    }
+
+    @Test
+    void readsIpv6Hops() {
+        assertEquals("2001:db8::1", resolve("::1", "[2001:db8::1]:443", null).text());
+        assertEquals("192.0.2.1", resolve("0:0:0:0:0:0:0:1", "::ffff:192.0.2.1", null).text());
+    }
+
+    private ClientAddressResolver.ClientAddress resolve(String peer, String forwardedFor, String forwardedProto) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(peer);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        if (forwardedProto != null) {
+            request.addHeader("X-Forwarded-Proto", forwardedProto);
+        }
+        return resolver.resolve(request);
+    }
+}
@@ -0,0 +1,97 @@
+package com.otorael.Capture_info.Network;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * <p>
+ *     Addresses arrive in whatever notation the client or proxy chose, the same address must always come out
+ *     as the same bytes and the same text.
+ * </p>
+ */
+class IpAddressesTest {
+
+    @Test
+    void parsesIpv4WithOrWithoutPort() {
+        assertArrayEquals(new byte[]{(byte) 203, 0, 113, 7}, IpAddresses.parse("203.0.113.7"));
+        assertEquals("203.0.113.7", text("203.0.113.7:8080"));
+        assertEquals("0.0.0.0", text("0.0.0.0"));
+        assertEquals("255.255.255.255", text(" 255.255.255.255 "));
+    }
+
+    @Test
+    void compressesTheLongestZeroRun() {
+        assertEquals("2001:db8::1", text("2001:0db8:0000:0000:0000:0000:0000:0001"));
+        assertEquals("::", text("::"));
+        assertEquals("::1", text("::1"));
+        assertEquals("1::", text("1::"));
+        assertEquals("2001:db8::1:0:0:1", text("2001:db8:0:0:1:0:0:1"));
+        /* a single zero group is not compressed */
+        assertEquals("2001:db8:0:1:1:1:1:1", text("2001:db8:0:1:1:1:1:1"));
+        assertEquals("2001:db8::abcd", text("2001:DB8::ABCD"));
+    }
+
+    @Test
+    void readsEmbeddedIpv4() {
+        assertEquals(16, IpAddresses.parse("64:ff9b::192.0.2.33").length);
+        assertEquals("64:ff9b::c000:221", text("64:ff9b::192.0.2.33"));
+        assertEquals("::102:304", text("::1.2.3.4"));
+    }
+
+    @Test
+    void reportsMappedAddressesAsIpv4() {
+        assertArrayEquals(new byte[]{(byte) 192, 0, 2, 1}, IpAddresses.parse("::ffff:192.0.2.1"));
+        assertArrayEquals(new byte[]{(byte) 192, 0, 2, 1}, IpAddresses.parse("::ffff:c000:201"));
+        assertArrayEquals(new byte[]{(byte) 192, 0, 2, 1}, IpAddresses.parse("[::ffff:192.0.2.1]:80"));
+    }
+
+    @Test
+    void dropsZoneIds() {
+        assertEquals("fe80::1", text("fe80::1%eth0"));
+        assertEquals("fe80::1", text("[fe80::1%25eth0]:443"));
+    }
+
+    @Test
+    void unwrapsBracketsAndPorts() {
+        assertEquals("2001:db8::1", text("[2001:db8::1]:443"));
+        assertEquals("::1", text("[::1]"));
+        assertNull(IpAddresses.parse("[::1"));
+        assertNull(IpAddresses.parse("[]"));
+    }
+
+    @Test
+    void rejectsInvalidInput() {
+        for (String invalid : new String[]{
+                "", "   ", "garbage", "unknown", "256.1.1.1", "1.2.3", "1.2.3.4.5", "1..2.3", "1234.1.1.1",
+                "1.2.3.-4", ":::", "1::2::3", "12345::", ":1::", "1:2:3:4:5:6:7", "1:2:3:4:5:6:7:8:9",
+                "1:2:3:4:5:6:7:8::", "::g", "2001:db8::1:", "::1.2.3", "::1.2.3.4:5"
+        }) {
+            assertNull(IpAddresses.parse(invalid), invalid);
+        }
+        assertNull(IpAddresses.parse(null));
+    }
+
+    @Test
+    void parsesInPlace() {
+        long[] words = new long[2];
+        String header = "198.51.100.1, 2001:db8::2 ,10.0.0.1";
+
+        assertEquals(IpAddresses.V6, IpAddresses.parse(header, 13, 26, words));
+        assertEquals("2001:db8::2", IpAddresses.format(IpAddresses.toBytes(IpAddresses.V6, words[0], words[1])));
+        assertEquals(IpAddresses.V4, IpAddresses.parse(header, 27, header.length(), words));
+        assertEquals("10.0.0.1", IpAddresses.format(IpAddresses.toBytes(IpAddresses.V4, words[0], words[1])));
+    }
+
+    @Test
+    void formatsOnlyAddressLengths() {
+        assertNull(IpAddresses.format(null));
+        assertNull(IpAddresses.format(new byte[5]));
+    }
+
+    private static String text(String address) {
+        return IpAddresses.format(IpAddresses.parse(address));
+    }
+}
@@ -0,0 +1,174 @@
+package com.otorael.Capture_info.Service.Implementation;
+
+import com.otorael.Capture_info.Model.CaptureProtocol;
+import com.otorael.Capture_info.Model.InformationModel;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * <p>
+ *     Every submitted row is either written or counted as dropped, whether the queue is full or the writer is
+ *     shutting down. Flushes are held on a latch to fill the queue at will.
+ * </p>
+ */
+class CaptureBatchWriterTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final AtomicInteger rowsFlushed = new AtomicInteger();
+    private final CountDownLatch flushing = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    CaptureBatchWriterTest() {
+        doAnswer(invocation -> {
+            rowsFlushed.addAndGet(invocation.<Collection<?>>getArgument(1).size());
+            flushing.countDown();
+            /* stop() interrupts the writer, a real insert would not give up half way either */
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    release.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            return new int[0][];
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    void dropPolicyDropsWhenFull() throws Exception {
+        CaptureBatchWriter writer = writer(2, "drop", 0);
+        assertTrue(writer.submit(row()));
+        assertTrue(flushing.await(5, TimeUnit.SECONDS));
+
+        assertTrue(writer.submit(row()));
+        assertTrue(writer.submit(row()));
+        assertFalse(writer.submit(row()));
+        assertEquals(1, writer.rowsDropped());
+
+        release.countDown();
+        writer.stop();
+        assertEquals(3, writer.rowsWritten());
+        assertEquals(3, rowsFlushed.get());
+    }
+
+    @Test
+    void blockPolicyWaitsThenDrops() throws Exception {
+        CaptureBatchWriter writer = writer(1, "block", 50);
+        assertTrue(writer.submit(row()));
+        assertTrue(flushing.await(5, TimeUnit.SECONDS));
+        assertTrue(writer.submit(row()));
+
+        long started = System.nanoTime();
+        assertFalse(writer.submit(row()));
+        assertTrue(System.nanoTime() - started >= TimeUnit.MILLISECONDS.toNanos(40));
+        assertEquals(1, writer.rowsDropped());
+
+        release.countDown();
+        writer.stop();
+        assertEquals(2, writer.rowsWritten());
+    }
+
+    @Test
+    void blockPolicyQueuesOnceSpaceFrees() throws Exception {
+        CaptureBatchWriter writer = writer(1, "block", 5_000);
+        assertTrue(writer.submit(row()));
+        assertTrue(flushing.await(5, TimeUnit.SECONDS));
+        assertTrue(writer.submit(row()));
+
+        CompletableFuture.runAsync(release::countDown, CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS));
+        assertTrue(writer.submit(row()));
+
+        writer.stop();
+        assertEquals(3, writer.rowsWritten());
+        assertEquals(0, writer.rowsDropped());
+    }
+
+    @Test
+    void stopFlushesQueuedRows() throws Exception {
+        release.countDown();
+        /* a flush interval far beyond the test, only stop() gets these rows out */
+        CaptureBatchWriter writer = new CaptureBatchWriter(
+                jdbcTemplate, new CaptureIdGenerator(0), 100, 500, 60_000, "drop", 0);
+        writer.start();
+        for (int i = 0; i < 10; i++) {
+            assertTrue(writer.submit(row()));
+        }
+
+        writer.stop();
+        assertEquals(10, writer.rowsWritten());
+        assertEquals(10, rowsFlushed.get());
+        assertEquals(0, writer.queueDepth());
+    }
+
+    @Test
+    void submitAfterStopIsCountedAsDropped() throws Exception {
+        release.countDown();
+        CaptureBatchWriter writer = writer(10, "drop", 0);
+        writer.stop();
+
+        assertFalse(writer.submit(row()));
+        assertEquals(1, writer.rowsDropped());
+        assertEquals(0, writer.queueDepth());
+    }
+
+    @Test
+    void rowQueuedDuringShutdownIsWrittenOrDropped() throws Exception {
+        CaptureBatchWriter writer = writer(1, "block", 5_000);
+        assertTrue(writer.submit(row()));
+        assertTrue(flushing.await(5, TimeUnit.SECONDS));
+        assertTrue(writer.submit(row()));
+
+        /* waits for space that only the final drain makes */
+        CompletableFuture<Boolean> late = CompletableFuture.supplyAsync(() -> writer.submit(row()));
+        Thread.sleep(50);
+        CompletableFuture<Void> stopped = CompletableFuture.runAsync(() -> {
+            try {
+                writer.stop();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Thread.sleep(50);
+        release.countDown();
+
+        late.get(5, TimeUnit.SECONDS);
+        stopped.get(15, TimeUnit.SECONDS);
+        assertEquals(3, writer.rowsWritten() + writer.rowsDropped());
+        assertEquals(0, writer.queueDepth());
+    }
+
+    private CaptureBatchWriter writer(int queueCapacity, String overflowPolicy, long blockTimeoutMillis) {
+        CaptureBatchWriter writer = new CaptureBatchWriter(
+                jdbcTemplate, new CaptureIdGenerator(0), queueCapacity, 1, 10, overflowPolicy, blockTimeoutMillis);
+        writer.start();
+        return writer;
+    }
+
+    private static InformationModel row() {
+        return new InformationModel(null, new byte[]{10, 0, 0, 1}, CaptureProtocol.HTTP, Instant.now());
+    }
+}
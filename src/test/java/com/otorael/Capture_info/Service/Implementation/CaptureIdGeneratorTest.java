@@ -0,0 +1,105 @@
+package com.otorael.Capture_info.Service.Implementation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>
+ *     Capture ids are primary keys handed out without asking the database, a duplicate fails a whole batch.
+ * </p>
+ */
+class CaptureIdGeneratorTest {
+
+    @Test
+    void idsFromOneNodeOnlyGrow() {
+        CaptureIdGenerator generator = new CaptureIdGenerator(7);
+
+        /* far more than 4096 per millisecond, so the sequence overflows and borrows */
+        long previous = generator.next();
+        for (int i = 0; i < 100_000; i++) {
+            long id = generator.next();
+            assertTrue(id > previous, "id " + id + " after " + previous);
+            previous = id;
+        }
+    }
+
+    @Test
+    void idsAreUniqueAcrossThreads() throws Exception {
+        CaptureIdGenerator generator = new CaptureIdGenerator(1);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        int threads = 8;
+        int perThread = 50_000;
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(generator.next());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(threads * perThread, ids.size());
+    }
+
+    @Test
+    void nodesNeverCollide() {
+        CaptureIdGenerator first = new CaptureIdGenerator(0);
+        CaptureIdGenerator second = new CaptureIdGenerator(1023);
+
+        /* both generators are in the same milliseconds, only the node bits tell them apart */
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 20_000; i++) {
+            long a = first.next();
+            long b = second.next();
+            assertNotEquals(a, b);
+            assertTrue(ids.add(a));
+            assertTrue(ids.add(b));
+        }
+        assertEquals(0, (first.next() >>> 12) & 1023);
+        assertEquals(1023, (second.next() >>> 12) & 1023);
+    }
+
+    @Test
+    void idsCarryTheCaptureTime() {
+        long before = System.currentTimeMillis();
+        long id = new CaptureIdGenerator(3).next();
+        long after = System.currentTimeMillis();
+
+        long millis = (id >>> 22) + CaptureIdGenerator.EPOCH_MILLIS;
+        assertTrue(millis >= before && millis <= after, "id time " + millis);
+    }
+
+    @Test
+    void refusesMissingOrOutOfRangeNode() {
+        assertThrows(IllegalStateException.class, () -> new CaptureIdGenerator(null));
+        assertThrows(IllegalArgumentException.class, () -> new CaptureIdGenerator(-1));
+        assertThrows(IllegalArgumentException.class, () -> new CaptureIdGenerator(1024));
+    }
+}
@@ -0,0 +1,101 @@
+package com.otorael.Capture_info.Service.Implementation;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * <p>
+ *     Every node runs maintenance, only the one holding the named lock may alter the table.
+ * </p>
+ */
+class CapturePartitionManagerTest {
+
+    private final Connection connection = mock(Connection.class);
+    private final Statement statement = mock(Statement.class);
+    private final List<String> prepared = new ArrayList<>();
+    private final List<String> executed = new ArrayList<>();
+
+    @Test
+    void nodeWithoutTheLockAltersNothing() throws SQLException {
+        manager(0).maintain();
+
+        assertEquals(List.of("SELECT GET_LOCK(?, 0)"), prepared);
+        verify(connection, never()).createStatement();
+    }
+
+    @Test
+    void lockHolderPartitionsAndReleases() throws SQLException {
+        manager(1).maintain();
+
+        assertEquals("SELECT GET_LOCK(?, 0)", prepared.get(0));
+        assertEquals("SELECT RELEASE_LOCK(?)", prepared.get(prepared.size() - 1));
+        assertEquals(2, executed.size());
+        assertTrue(executed.get(1).contains("PARTITION BY RANGE COLUMNS(captured_at)"), executed.get(1));
+    }
+
+    private CapturePartitionManager manager(int lockResult) throws SQLException {
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(metaData.getDatabaseProductName()).thenReturn("MySQL");
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.execute(anyString())).thenAnswer(invocation -> {
+            executed.add(invocation.getArgument(0));
+            return false;
+        });
+        when(connection.prepareStatement(anyString())).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            prepared.add(sql);
+            PreparedStatement preparedStatement = mock(PreparedStatement.class);
+            ResultSet resultSet = sql.contains("information_schema")
+                    ? rows()
+                    : rows(sql.contains("GET_LOCK") ? lockResult : 1);
+            when(preparedStatement.executeQuery()).thenReturn(resultSet);
+            return preparedStatement;
+        });
+
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenAnswer(invocation ->
+                invocation.getArgument(0, ConnectionCallback.class).doInConnection(connection));
+        return new CapturePartitionManager(jdbcTemplate, 30, 3);
+    }
+
+    /**
+     *
+     * @param values the single column of each row, here at most one
+     */
+    private static ResultSet rows(int... values) throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(1);
+        when(resultSet.getMetaData()).thenReturn(metaData);
+
+        if (values.length == 0) {
+            when(resultSet.next()).thenReturn(false);
+            return resultSet;
+        }
+        when(resultSet.next()).thenReturn(true, false);
+        when(resultSet.getObject(1, Integer.class)).thenReturn(values[0]);
+        when(resultSet.getInt(1)).thenReturn(values[0]);
+        return resultSet;
+    }
+}
@@ -0,0 +1,134 @@
+package com.otorael.Capture_info.Service.Implementation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>
+ *     The traffic view ranks addresses by these estimates, so they must never undercount and must overcount by
+ *     no more than the documented bound for all but a small fraction of keys.
+ * </p>
+ */
+class CountMinSketchTest {
+
+    private static final int DEPTH = 4;
+    private static final int WIDTH = 1024;
+
+    @Test
+    void widthIsRoundedUpToAPowerOfTwo() {
+        assertEquals(DEPTH * 1024, new CountMinSketch(DEPTH, 1000).size());
+        assertEquals(DEPTH * 1024, new CountMinSketch(DEPTH, 1024).size());
+        assertEquals(DEPTH * 2048, new CountMinSketch(DEPTH, 1025).size());
+    }
+
+    @Test
+    void estimatesStayWithinTheErrorBound() {
+        CountMinSketch sketch = new CountMinSketch(DEPTH, WIDTH);
+        int keys = 20_000;
+        long total = 0;
+        for (int i = 0; i < keys; i++) {
+            for (int hit = 0; hit <= i % 5; hit++) {
+                sketch.add(address(i));
+                total++;
+            }
+        }
+
+        long[] merged = new long[sketch.size()];
+        sketch.addTo(merged);
+        long bound = 2 * total / WIDTH;
+        int overBound = 0;
+        for (int i = 0; i < keys; i++) {
+            long actual = i % 5 + 1;
+            long estimate = sketch.estimate(merged, address(i));
+            assertTrue(estimate >= actual, address(i) + " undercounted: " + estimate + " < " + actual);
+            if (estimate - actual > bound) {
+                overBound++;
+            }
+        }
+
+        /* the bound holds per key with probability 1 - 2^-depth */
+        assertTrue(overBound <= keys >> DEPTH, overBound + " of " + keys + " keys over " + bound);
+    }
+
+    @Test
+    void heavyHitterIsEstimatedClosely() {
+        CountMinSketch sketch = new CountMinSketch(DEPTH, WIDTH);
+        for (int i = 0; i < 10_000; i++) {
+            sketch.add(address(i));
+            if (i % 2 == 0) {
+                sketch.add("198.51.100.1");
+            }
+        }
+
+        long[] merged = new long[sketch.size()];
+        sketch.addTo(merged);
+        long estimate = sketch.estimate(merged, "198.51.100.1");
+        assertTrue(estimate >= 5_000 && estimate <= 5_000 + 2 * 15_000 / WIDTH, "estimate " + estimate);
+    }
+
+    @Test
+    void addReturnsTheRunningEstimate() {
+        CountMinSketch sketch = new CountMinSketch(DEPTH, WIDTH);
+
+        assertEquals(1, sketch.add("198.51.100.1"));
+        assertEquals(2, sketch.add("198.51.100.1"));
+        assertEquals(1, sketch.add("198.51.100.2"));
+    }
+
+    @Test
+    void mergedSketchesSumTheirCounts() {
+        CountMinSketch first = new CountMinSketch(DEPTH, WIDTH);
+        CountMinSketch second = new CountMinSketch(DEPTH, WIDTH);
+        for (int i = 0; i < 3; i++) {
+            first.add("198.51.100.1");
+        }
+        for (int i = 0; i < 4; i++) {
+            second.add("198.51.100.1");
+        }
+        second.add("198.51.100.2");
+
+        long[] merged = new long[first.size()];
+        first.addTo(merged);
+        second.addTo(merged);
+
+        assertEquals(7, first.estimate(merged, "198.51.100.1"));
+        assertEquals(1, first.estimate(merged, "198.51.100.2"));
+    }
+
+    @Test
+    void concurrentAddsAreNotLost() throws Exception {
+        CountMinSketch sketch = new CountMinSketch(DEPTH, WIDTH);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        sketch.add("198.51.100.1");
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        long[] merged = new long[sketch.size()];
+        sketch.addTo(merged);
+        assertEquals(80_000, sketch.estimate(merged, "198.51.100.1"));
+    }
+
+    private static String address(int i) {
+        return "10." + (i >> 16) + "." + ((i >> 8) & 0xff) + "." + (i & 0xff);
+    }
+}
@@ -0,0 +1,94 @@
+package com.otorael.Capture_info.Service.Implementation;
+
+import com.otorael.Capture_info.Service.TrafficAggregator.Count;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>
+ *     Counts leave the window a slot at a time, either when the ring wraps over them or when their slot ended
+ *     before the window began, and an address seen in several slots is reported once with its summed hits.
+ * </p>
+ */
+class SlidingWindowTrafficAggregatorTest {
+
+    private static final long MINUTE = 60_000;
+
+    @Test
+    void wrappingTheRingDropsTheOldestSlot() {
+        SlidingWindowTrafficAggregator aggregator = new SlidingWindowTrafficAggregator(MINUTE, 3, 4, 1024, 10);
+        long window = aggregator.maxWindowMillis();
+
+        record(aggregator, "198.51.100.1", "https", 5);
+        aggregator.rotate();
+        record(aggregator, "198.51.100.1", "http", 2);
+        aggregator.rotate();
+        assertEquals(7, aggregator.hits("198.51.100.1", window));
+        assertEquals(7, aggregator.totalHits(window));
+
+        /* the fourth slot takes the first one's place */
+        aggregator.rotate();
+        assertEquals(2, aggregator.hits("198.51.100.1", window));
+        assertEquals(2, aggregator.totalHits(window));
+        assertEquals(List.of(new Count("http", 2)), aggregator.protocols(window));
+    }
+
+    @Test
+    void slotsThatEndedBeforeTheWindowAreLeftOut() throws InterruptedException {
+        SlidingWindowTrafficAggregator aggregator = new SlidingWindowTrafficAggregator(50, 10, 4, 1024, 10);
+
+        record(aggregator, "198.51.100.1", "https", 3);
+        Thread.sleep(200);
+        aggregator.rotate();
+        record(aggregator, "198.51.100.1", "https", 1);
+
+        assertEquals(1, aggregator.totalHits(100));
+        assertEquals(1, aggregator.hits("198.51.100.1", 100));
+        assertEquals(4, aggregator.totalHits(aggregator.maxWindowMillis()));
+    }
+
+    @Test
+    void talkerSeenInSeveralSlotsIsReportedOnce() {
+        SlidingWindowTrafficAggregator aggregator = new SlidingWindowTrafficAggregator(MINUTE, 5, 4, 1024, 10);
+
+        record(aggregator, "198.51.100.1", "https", 4);
+        aggregator.rotate();
+        record(aggregator, "198.51.100.1", "https", 3);
+        record(aggregator, "198.51.100.2", "https", 2);
+
+        assertEquals(List.of(new Count("198.51.100.1", 7), new Count("198.51.100.2", 2)),
+                aggregator.topTalkers(aggregator.maxWindowMillis(), 10));
+    }
+
+    @Test
+    void busiestAddressesSurviveTheCandidateCap() {
+        SlidingWindowTrafficAggregator aggregator = new SlidingWindowTrafficAggregator(MINUTE, 5, 4, 2048, 10);
+
+        /* a few heavy hitters lost among thousands of one-off addresses */
+        for (int i = 0; i < 5_000; i++) {
+            aggregator.record("10.0." + (i >> 8) + "." + (i & 0xff), "https");
+            if (i % 50 == 0) {
+                aggregator.record("198.51.100.1", "https");
+                aggregator.record("198.51.100.2", "https");
+                aggregator.record("198.51.100.3", "https");
+            }
+        }
+
+        List<Count> top = aggregator.topTalkers(aggregator.maxWindowMillis(), 3);
+        assertEquals(List.of("198.51.100.1", "198.51.100.2", "198.51.100.3"),
+                top.stream().map(Count::key).sorted().toList());
+        for (Count count : top) {
+            assertTrue(count.hits() >= 100 && count.hits() <= 100 + 2 * 5_300 / 2048, count.toString());
+        }
+    }
+
+    private static void record(SlidingWindowTrafficAggregator aggregator, String ipAddress, String protocol, int hits) {
+        for (int i = 0; i < hits; i++) {
+            aggregator.record(ipAddress, protocol);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.otorael.Capture_info.Service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>
+ *     Ranks come from the order of the list, see {@code lists/test-pins.txt}: 1234, 1111, 0000 and 7777, with
+ *     a duplicate and two lines that are not PINs in between. Large chunks are split across the scoring pool,
+ *     which must not change a byte of the output.
+ * </p>
+ */
+class PinCodeServiceTest {
+
+    private final PinCodeService pinCodeService = new PinCodeService(2, "lists/test-pins.txt", 4);
+
+    PinCodeServiceTest() {
+        pinCodeService.load();
+    }
+
+    @Test
+    void ranksFollowTheList() {
+        assertEquals(1, pinCodeService.rank("1234"));
+        assertEquals(2, pinCodeService.rank("1111"));
+        assertEquals(3, pinCodeService.rank("0000"));
+        /* the duplicate and the invalid lines take no rank */
+        assertEquals(4, pinCodeService.rank("7777"));
+        assertEquals(0, pinCodeService.rank("9999"));
+        assertEquals(4, pinCodeService.rank(7777));
+    }
+
+    @Test
+    void rejectsAnythingButFourDigits() {
+        for (String invalid : new String[]{"", "123", "12345", "12a4", " 123", "\uFF11\uFF12\uFF13\uFF14"}) {
+            assertEquals(PinCodeService.INVALID, pinCodeService.rank(invalid), invalid);
+        }
+        assertEquals(PinCodeService.INVALID, pinCodeService.rank((String) null));
+        assertEquals(PinCodeService.INVALID, pinCodeService.rank(-1));
+        assertEquals(PinCodeService.INVALID, pinCodeService.rank(PinCodeService.PIN_SPACE));
+    }
+
+    @Test
+    void weakUpToTheThreshold() {
+        assertTrue(pinCodeService.isWeak(1));
+        assertTrue(pinCodeService.isWeak(2));
+        assertFalse(pinCodeService.isWeak(3));
+        assertFalse(pinCodeService.isWeak(0));
+        assertFalse(pinCodeService.isWeak(PinCodeService.INVALID));
+    }
+
+    @Test
+    void streamsOneResultPerLine() throws IOException {
+        String input = "1234\n\"1111\"\r\n{\"pin\":\"0000\"}\n\n   \nabc\n12345\n12-34\n9999";
+
+        String output = score(input);
+
+        assertEquals("""
+                {"pin":"1234","rank":1,"verdict":"weak"}
+                {"pin":"1111","rank":2,"verdict":"weak"}
+                {"pin":"0000","rank":3,"verdict":"strong"}
+                {"line":6,"verdict":"invalid"}
+                {"line":7,"verdict":"invalid"}
+                {"line":8,"verdict":"invalid"}
+                {"pin":"9999","rank":0,"verdict":"strong"}
+                """, output);
+    }
+
+    @Test
+    void streamsAcrossChunks() throws IOException {
+        StringBuilder input = new StringBuilder();
+        int lines = 40_000;
+        for (int i = 0; i < lines; i++) {
+            input.append(i % 2 == 0 ? "1234" : "x").append('\n');
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long scored = pinCodeService.scoreStream(
+                new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.US_ASCII)), out);
+
+        String[] results = out.toString(StandardCharsets.US_ASCII).split("\n");
+        assertEquals(lines, scored);
+        assertEquals(lines, results.length);
+        assertEquals("{\"pin\":\"1234\",\"rank\":1,\"verdict\":\"weak\"}", results[lines - 2]);
+        assertEquals("{\"line\":" + lines + ",\"verdict\":\"invalid\"}", results[lines - 1]);
+    }
+
+    @Test
+    void parallelScoringMatchesSequential() throws IOException {
+        PinCodeService sequential = new PinCodeService(2, "lists/test-pins.txt", 1);
+        sequential.load();
+
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 50_000; i++) {
+            input.append(switch (i % 4) {
+                case 0 -> String.format("%04d", i % PinCodeService.PIN_SPACE);
+                case 1 -> "{\"pin\":\"1111\"}";
+                case 2 -> "12a4";
+                default -> "\"7777\"";
+            }).append('\n');
+        }
+
+        assertEquals(score(sequential, input.toString()), score(input.toString()));
+    }
+
+    @Test
+    void writesResultsBeforeTheBodyEnds() throws IOException {
+        byte[] firstChunk = "1234\n".repeat(20_000).getBytes(StandardCharsets.US_ASCII);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long[] writtenWhenBodyEnded = {-1};
+
+        /* the body ends only once the results for the first chunk were due */
+        InputStream in = new InputStream() {
+            private int position;
+
+            @Override
+            public int read() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) {
+                if (position == firstChunk.length) {
+                    writtenWhenBodyEnded[0] = out.size();
+                    return -1;
+                }
+                int read = Math.min(length, firstChunk.length - position);
+                System.arraycopy(firstChunk, position, buffer, offset, read);
+                position += read;
+                return read;
+            }
+        };
+
+        pinCodeService.scoreStream(in, out);
+
+        assertTrue(writtenWhenBodyEnded[0] > 0, "nothing written before the body ended");
+    }
+
+    private String score(String input) throws IOException {
+        return score(pinCodeService, input);
+    }
+
+    private static String score(PinCodeService pinCodeService, String input) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        pinCodeService.scoreStream(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}